@@ -41,6 +41,8 @@ public class ModbusDataConfiguration {
     private boolean writeMultipleEvenWithSingleRegisterOrCoil;
     private int writeMaxTries = 3; // backwards compatibility and tests
     private long updateUnchangedValuesEveryMillis = 1000L;
+    private double readDeadband;
+    private int forceUpdateEveryNPolls;
 
     public @Nullable String getReadStart() {
         return readStart;
@@ -121,4 +123,20 @@ public class ModbusDataConfiguration {
     public void setUpdateUnchangedValuesEveryMillis(long updateUnchangedValuesEveryMillis) {
         this.updateUnchangedValuesEveryMillis = updateUnchangedValuesEveryMillis;
     }
+
+    public double getReadDeadband() {
+        return readDeadband;
+    }
+
+    public void setReadDeadband(double readDeadband) {
+        this.readDeadband = readDeadband;
+    }
+
+    public int getForceUpdateEveryNPolls() {
+        return forceUpdateEveryNPolls;
+    }
+
+    public void setForceUpdateEveryNPolls(int forceUpdateEveryNPolls) {
+        this.forceUpdateEveryNPolls = forceUpdateEveryNPolls;
+    }
 }
@@ -139,6 +139,18 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile int pollStart;
     private volatile int slaveId;
     private volatile long updateUnchangedValuesEveryMillis;
+    private volatile double readDeadband;
+    private volatile int forceUpdateEveryNPolls;
+    /**
+     * Raw data (register or bit content) of the last poll. Used to skip processing of unchanged data.
+     */
+    private volatile long lastRawValue;
+    private volatile boolean lastRawValueValid;
+    /**
+     * Numeric value of the last propagated update, NaN when not available. Used with the deadband.
+     */
+    private volatile double lastPropagatedValue = Double.NaN;
+    private volatile int pollsSinceLastPropagation;
     private volatile @Nullable ModbusSlaveEndpoint slaveEndpoint;
     private volatile @Nullable ModbusManager manager;
     private volatile @Nullable PollTask pollTask;
@@ -342,6 +354,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             logger.trace("initialize() of thing {} '{}' starting", thing.getUID(), thing.getLabel());
             config = getConfigAs(ModbusDataConfiguration.class);
             updateUnchangedValuesEveryMillis = config.getUpdateUnchangedValuesEveryMillis();
+            readDeadband = config.getReadDeadband();
+            forceUpdateEveryNPolls = config.getForceUpdateEveryNPolls();
             Bridge bridge = getBridge();
             if (bridge == null) {
                 logger.debug("Thing {} '{}' has no bridge", getThing().getUID(), getThing().getLabel());
@@ -419,6 +433,23 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        readDeadband = 0;
+        forceUpdateEveryNPolls = 0;
+        resetLastValue();
+    }
+
+    @Override
+    public synchronized void channelLinked(ChannelUID channelUID) {
+        // make sure the newly linked channel gets its state with the next poll
+        resetLastValue();
+        super.channelLinked(channelUID);
+    }
+
+    private void resetLastValue() {
+        lastRawValue = 0;
+        lastRawValueValid = false;
+        lastPropagatedValue = Double.NaN;
+        pollsSinceLastPropagation = 0;
     }
 
     @Override
@@ -680,10 +711,26 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
+        boolean forceUpdate = isForcedUpdateDue();
+        // Compare the polled value with the previous poll before any state is created
+        if (isUnchanged(extractRawValue(registers, extractIndex, readValueType), forceUpdate)) {
+            processUnchangedValue();
+            return;
+        }
+        if (!forceUpdate && readDeadband > 0) {
+            double value = ModbusBitUtilities.extractDoubleFromRegisters(registers, extractIndex, readValueType);
+            // NaN (e.g. no previous value) is never within the deadband
+            if (Math.abs(value - lastPropagatedValue) < readDeadband) {
+                logger.trace("Thing {} value {} is within deadband {} of the last update {}, not updating channels",
+                        thing.getUID(), value, readDeadband, lastPropagatedValue);
+                processUnchangedValue();
+                return;
+            }
+        }
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
                 .map(state -> (State) state).orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue, forceUpdate);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
@@ -698,8 +745,13 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             return;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
+        boolean forceUpdate = isForcedUpdateDue();
+        if (isUnchanged(boolValue ? 1 : 0, forceUpdate)) {
+            processUnchangedValue();
+            return;
+        }
         DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue, forceUpdate);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
@@ -794,14 +846,69 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         }
     }
 
+    /**
+     * Whether the channels should be updated with this poll regardless of changes in the data
+     */
+    private boolean isForcedUpdateDue() {
+        return forceUpdateEveryNPolls > 0 && pollsSinceLastPropagation + 1 >= forceUpdateEveryNPolls;
+    }
+
+    /**
+     * Check whether polled raw data is unchanged since the previous poll, and remember it for the next poll
+     *
+     * @param rawValue raw polled data
+     * @param forceUpdate whether data should be considered changed in any case
+     * @return whether the data is unchanged
+     */
+    private boolean isUnchanged(long rawValue, boolean forceUpdate) {
+        boolean unchanged = lastRawValueValid && lastRawValue == rawValue;
+        lastRawValue = rawValue;
+        lastRawValueValid = true;
+        return unchanged && !forceUpdate;
+    }
+
+    /**
+     * Extract the bits of the polled value, without allocating any objects
+     *
+     * @return raw value, comparable with the raw value of another poll
+     */
+    private static long extractRawValue(ModbusRegisterArray registers, int extractIndex, ValueType valueType) {
+        switch (valueType) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                return Double.doubleToRawLongBits(
+                        ModbusBitUtilities.extractDoubleFromRegisters(registers, extractIndex, valueType));
+            default:
+                return ModbusBitUtilities.extractLongFromRegisters(registers, extractIndex, valueType);
+        }
+    }
+
+    /**
+     * Handle polled data which has not changed (enough) since the last update. Transformations are not applied,
+     * channels are updated with their previous states when updateUnchangedValuesEveryMillis has expired.
+     */
+    private void processUnchangedValue() {
+        pollsSinceLastPropagation++;
+        Map<ChannelUID, State> states = new HashMap<>(channelLastState);
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            states.put(lastReadSuccessUID, new DateTimeType());
+        }
+        updateExpiredChannels(states, false);
+    }
+
     /**
      * Update linked channels
      *
      * @param numericState numeric state corresponding to polled data (or UNDEF with floating point NaN or infinity)
      * @param boolValue boolean value corresponding to polled data
+     * @param forceUpdate whether to update all channels, even if their state has not changed
      * @return updated channel data
      */
-    private Map<ChannelUID, State> processUpdatedValue(State numericState, boolean boolValue) {
+    private Map<ChannelUID, State> processUpdatedValue(State numericState, boolean boolValue, boolean forceUpdate) {
+        pollsSinceLastPropagation = 0;
+        lastPropagatedValue = numericState instanceof DecimalType ? ((DecimalType) numericState).doubleValue()
+                : Double.NaN;
         Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>();
         CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
             ChannelUID channelUID = getChannelUID(channelId);
@@ -859,26 +966,26 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         if (isLinked(lastReadSuccessUID)) {
             states.put(lastReadSuccessUID, new DateTimeType());
         }
-        updateExpiredChannels(states);
+        updateExpiredChannels(states, forceUpdate);
         return states;
     }
 
-    private void updateExpiredChannels(Map<ChannelUID, State> states) {
+    private void updateExpiredChannels(Map<ChannelUID, State> states, boolean forceUpdate) {
         synchronized (this) {
             updateStatusIfChanged(ThingStatus.ONLINE);
             long now = System.currentTimeMillis();
             // Update channels that have not been updated in a while, or when their values has changed
-            states.forEach((uid, state) -> updateExpiredChannel(now, uid, state));
+            states.forEach((uid, state) -> updateExpiredChannel(now, uid, state, forceUpdate));
             channelLastState = states;
         }
     }
 
-    private void updateExpiredChannel(long now, ChannelUID uid, State state) {
+    private void updateExpiredChannel(long now, ChannelUID uid, State state, boolean forceUpdate) {
         @Nullable
         State lastState = channelLastState.get(uid);
         long lastUpdatedMillis = channelLastUpdated.getOrDefault(uid, 0L);
         long millisSinceLastUpdate = now - lastUpdatedMillis;
-        if (lastUpdatedMillis <= 0L || lastState == null || updateUnchangedValuesEveryMillis <= 0L
+        if (forceUpdate || lastUpdatedMillis <= 0L || lastState == null || updateUnchangedValuesEveryMillis <= 0L
                 || millisSinceLastUpdate > updateUnchangedValuesEveryMillis || !lastState.equals(state)) {
             tryUpdateState(uid, state);
             channelLastUpdated.put(uid, now);
@@ -20,6 +20,7 @@ import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -29,6 +30,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -1352,4 +1354,133 @@ public class ModbusDataHandlerTest extends JavaTest {
         testInitGeneric(null, dataConfig, status -> assertThat(status.getStatus(), is(equalTo(ThingStatus.ONLINE))));
 
     }
+
+    private ModbusDataThingHandler createInt16ReadHandler(String transform, Configuration extraConfig,
+            BundleContext context) {
+        return createReadHandler(ModbusConstants.ValueType.INT16, "0", transform, extraConfig, context);
+    }
+
+    @SuppressWarnings("null")
+    private ModbusDataThingHandler createReadHandler(ModbusConstants.ValueType valueType, String readStart,
+            String transform, Configuration extraConfig, BundleContext context) {
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502);
+
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration(extraConfig.getProperties());
+        dataConfig.put("readStart", readStart);
+        dataConfig.put("readTransform", transform);
+        dataConfig.put("readValueType", valueType.getConfigValue());
+
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig), context);
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+        return dataHandler;
+    }
+
+    private static ModbusRegisterArray int16Registers(int value) {
+        return new BasicModbusRegisterArray(new ModbusRegister[] { new BasicModbusRegister(value) });
+    }
+
+    private List<State> stateUpdates(ModbusDataThingHandler handler, String channel) {
+        return stateUpdates.getOrDefault(new ChannelUID(handler.getThing().getUID(), channel), new ArrayList<>());
+    }
+
+    @Test
+    public void testUnchangedRegistersAreNotTransformed() throws InvalidSyntaxException {
+        AtomicInteger transformations = new AtomicInteger();
+        mockTransformation("MULTIPLY", new TransformationService() {
+
+            @Override
+            public String transform(String function, String source) throws TransformationException {
+                transformations.incrementAndGet();
+                return String.valueOf(Integer.parseInt(function) * Integer.parseInt(source));
+            }
+        });
+        ModbusDataThingHandler dataHandler = createInt16ReadHandler("MULTIPLY(10)", new Configuration(),
+                bundleContext);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+
+        dataHandler.onRegisters(request, int16Registers(5));
+        int transformationsAfterFirstPoll = transformations.get();
+        assertThat(transformationsAfterFirstPoll > 0, is(true));
+
+        dataHandler.onRegisters(request, int16Registers(5));
+        assertThat(transformations.get(), is(equalTo(transformationsAfterFirstPoll)));
+        assertThat(stateUpdates(dataHandler, CHANNEL_NUMBER), is(equalTo(Arrays.asList(new DecimalType(50)))));
+
+        dataHandler.onRegisters(request, int16Registers(6));
+        assertThat(stateUpdates(dataHandler, CHANNEL_NUMBER),
+                is(equalTo(Arrays.asList(new DecimalType(50), new DecimalType(60)))));
+    }
+
+    @Test
+    public void testChangesOutsideOfTheValueAreIgnored() throws InvalidSyntaxException {
+        AtomicInteger transformations = new AtomicInteger();
+        mockTransformation("MULTIPLY", new TransformationService() {
+
+            @Override
+            public String transform(String function, String source) throws TransformationException {
+                transformations.incrementAndGet();
+                return String.valueOf(Integer.parseInt(function) * Integer.parseInt(source));
+            }
+        });
+        // low byte of the first register
+        ModbusDataThingHandler dataHandler = createReadHandler(ModbusConstants.ValueType.INT8, "0.0", "MULTIPLY(10)",
+                new Configuration(), bundleContext);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+
+        dataHandler.onRegisters(request, int16Registers(0x0105));
+        int transformationsAfterFirstPoll = transformations.get();
+
+        // only the high byte changes
+        dataHandler.onRegisters(request, int16Registers(0x0205));
+        assertThat(transformations.get(), is(equalTo(transformationsAfterFirstPoll)));
+
+        dataHandler.onRegisters(request, int16Registers(0x0206));
+        assertThat(stateUpdates(dataHandler, CHANNEL_NUMBER),
+                is(equalTo(Arrays.asList(new DecimalType(50), new DecimalType(60)))));
+    }
+
+    @Test
+    public void testDeadband() {
+        Configuration config = new Configuration();
+        config.put("readDeadband", new BigDecimal("5"));
+        config.put("updateUnchangedValuesEveryMillis", new BigDecimal("3600000"));
+        ModbusDataThingHandler dataHandler = createInt16ReadHandler("default", config, null);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+
+        dataHandler.onRegisters(request, int16Registers(100));
+        dataHandler.onRegisters(request, int16Registers(103));
+        dataHandler.onRegisters(request, int16Registers(96));
+        dataHandler.onRegisters(request, int16Registers(106));
+
+        assertThat(stateUpdates(dataHandler, CHANNEL_NUMBER),
+                is(equalTo(Arrays.asList(new DecimalType(100), new DecimalType(106)))));
+    }
+
+    @Test
+    public void testForceUpdateEveryNPolls() {
+        Configuration config = new Configuration();
+        config.put("forceUpdateEveryNPolls", new BigDecimal("3"));
+        config.put("updateUnchangedValuesEveryMillis", new BigDecimal("3600000"));
+        ModbusDataThingHandler dataHandler = createInt16ReadHandler("default", config, null);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+
+        for (int i = 0; i < 7; i++) {
+            dataHandler.onRegisters(request, int16Registers(42));
+        }
+
+        // first poll, and every third poll after that
+        assertThat(stateUpdates(dataHandler, CHANNEL_NUMBER), is(equalTo(
+                Arrays.asList(new DecimalType(42), new DecimalType(42), new DecimalType(42)))));
+    }
 }
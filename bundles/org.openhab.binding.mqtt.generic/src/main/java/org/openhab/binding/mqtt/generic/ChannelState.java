@@ -27,7 +27,6 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.types.Command;
-import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.values.Value;
@@ -151,6 +150,12 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        // Fast path: Untransformed state payloads are parsed straight from the bytes by the value
+        if (transformationsIn.isEmpty() && !config.trigger) {
+            processCommand(channelStateUpdateListener, cachedValue.parseCommand(payload), payload);
+            return;
+        }
+
         // String value: Apply transformations
         String strValue = new String(payload, StandardCharsets.UTF_8);
         for (ChannelStateTransformation t : transformationsIn) {
@@ -172,9 +177,20 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        Command command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
+        processCommand(channelStateUpdateListener, cachedValue.parseCommand(strValue), strValue);
+    }
+
+    /**
+     * Updates the cached value with the parsed command and informs the listener
+     *
+     * @param channelStateUpdateListener The listener
+     * @param command The parsed command, null if the value could not be parsed
+     * @param value The (transformed) value as String or the untransformed payload, only used for logging
+     */
+    private void processCommand(ChannelStateUpdateListener channelStateUpdateListener, @Nullable Command command,
+            Object value) {
         if (command == null) {
-            logger.warn("Incoming payload '{}' not supported by type '{}'", strValue,
+            logger.warn("Incoming payload '{}' not supported by type '{}'", toLogString(value),
                     cachedValue.getClass().getSimpleName());
             receivedOrTimeout();
             return;
@@ -191,8 +207,8 @@ public class ChannelState implements MqttMessageSubscriber {
         try {
             cachedValue.update(command);
         } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Command '{}' not supported by type '{}': {}", strValue, cachedValue.getClass().getSimpleName(),
-                    e.getMessage());
+            logger.warn("Command '{}' not supported by type '{}': {}", toLogString(value),
+                    cachedValue.getClass().getSimpleName(), e.getMessage());
             receivedOrTimeout();
             return;
         }
@@ -205,6 +221,10 @@ public class ChannelState implements MqttMessageSubscriber {
         receivedOrTimeout();
     }
 
+    private static String toLogString(Object value) {
+        return value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8) : value.toString();
+    }
+
     /**
      * Returns the state topic. Might be an empty string if this is a stateless channel (TRIGGER kind channel).
      */
@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.binding.mqtt.generic.tools.TopicRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -107,6 +108,10 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     protected transient AttributeChanged attributeChangedListener = (b, c, d, e, f) -> {
     };
     private transient boolean complete = false;
+    // If set, fields are subscribed via this router instead of the broker connection
+    private transient @Nullable TopicRouter topicRouter;
+    // The router the current subscriptions have been registered on
+    private transient @Nullable TopicRouter subscribedRouter;
 
     /**
      * Implement this interface to be notified of an updated field.
@@ -139,6 +144,13 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
      * @return Returns a future that completes as soon as all unsubscriptions have been performed.
      */
     public CompletableFuture<@Nullable Void> unsubscribe() {
+        final TopicRouter router = this.subscribedRouter;
+        if (router != null) {
+            subscriptions.forEach(m -> router.unsubscribe(m.topic, m));
+            subscriptions.clear();
+            this.subscribedRouter = null;
+            return CompletableFuture.completedFuture(null);
+        }
         final MqttBrokerConnection connection = this.connection.get();
         if (connection == null) {
             subscriptions.clear();
@@ -191,11 +203,35 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
         subscriptions = getAllFields(getFieldsOf().getClass()).stream().filter(AbstractMqttAttributeClass::filterField)
                 .map(this::mapFieldToSubscriber).collect(Collectors.toList());
 
-        final CompletableFuture<?>[] futures = subscriptions.stream()
-                .map(m -> m.subscribeAndReceive(connection, timeout)).toArray(CompletableFuture[]::new);
+        final TopicRouter router = this.topicRouter;
+        final CompletableFuture<?>[] futures;
+        if (router != null && router.covers(basetopic)) {
+            subscribedRouter = router;
+            futures = subscriptions.stream().map(m -> m.subscribeAndReceive(router, timeout))
+                    .toArray(CompletableFuture[]::new);
+        } else {
+            futures = subscriptions.stream().map(m -> m.subscribeAndReceive(connection, timeout))
+                    .toArray(CompletableFuture[]::new);
+        }
         return CompletableFuture.allOf(startFuture, CompletableFuture.allOf(futures));
     }
 
+    /**
+     * Subscribe to the fields of this class via the given router instead of subscribing to every single topic on the
+     * broker connection. Takes effect with the next
+     * {@link #subscribeAndReceive(MqttBrokerConnection, ScheduledExecutorService, String, AttributeChanged, int)}
+     * call, if the router covers the base topic.
+     *
+     * @param topicRouter A router or null to subscribe on the connection again.
+     */
+    public void setTopicRouter(@Nullable TopicRouter topicRouter) {
+        this.topicRouter = topicRouter;
+    }
+
+    public @Nullable TopicRouter getTopicRouter() {
+        return topicRouter;
+    }
+
     /**
      * Return fields of the given class as well as all super classes.
      *
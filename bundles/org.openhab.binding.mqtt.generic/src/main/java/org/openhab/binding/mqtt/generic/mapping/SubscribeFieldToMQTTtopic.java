@@ -25,6 +25,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttException;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.generic.tools.TopicRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -180,7 +181,25 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
      * @throws MqttException If an MQTT IO exception happens this exception is thrown.
      */
     public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection, int timeout) {
-        connection.subscribe(topic, this).exceptionally(e -> {
+        return waitForValue(connection.subscribe(topic, this), timeout);
+    }
+
+    /**
+     * Subscribe to the MQTT topic via a local {@link TopicRouter} instead of the broker.
+     * A retained value already known to the router completes the returned future immediately.
+     * You need to manually unsubscribe from the {@link #topic} on the router before disposing.
+     *
+     * @param router A router that covers the topic of this field.
+     * @param timeout Timeout in milliseconds. The returned future completes after this time even if no message has
+     *            been received for the MQTT topic.
+     * @return Returns a future that completes if either a value is received for the topic or a timeout happens.
+     */
+    public CompletableFuture<@Nullable Void> subscribeAndReceive(TopicRouter router, int timeout) {
+        return waitForValue(router.subscribe(topic, this), timeout);
+    }
+
+    private CompletableFuture<@Nullable Void> waitForValue(CompletableFuture<Boolean> subscription, int timeout) {
+        subscription.exceptionally(e -> {
             logger.debug("Failed to subscribe to topic {}", topic, e);
             final ScheduledFuture<?> scheduledFuture = this.scheduledFuture;
             if (scheduledFuture != null) { // Cancel timeout
@@ -13,11 +13,15 @@
 package org.openhab.binding.mqtt.generic.tools;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -27,32 +31,96 @@ import org.eclipse.jdt.annotation.Nullable;
  * Collects objects over time until a specified delay passed by.
  * Then call the user back with a list of accumulated objects and start over again.
  *
+ * <p>
+ * Objects are collected in a lock-free queue, so producers never block each other. If a maximum batch size is given,
+ * a full batch is delivered right away without waiting for the delay. If a capacity is given, the
+ * {@link OverflowPolicy} decides what happens to objects arriving while the queue is full. The capacity is checked
+ * without locking and may be exceeded by the number of concurrent producers.
+ * </p>
+ *
+ * <p>
+ * The consumer is never called concurrently.
+ * </p>
+ *
  * @author David Graeff - Initial contribution
  *
  * @param <T> Any object
  */
 @NonNullByDefault
 public class DelayedBatchProcessing<T> implements Consumer<T> {
+    /**
+     * Decides what happens to an object arriving while the queue is full
+     */
+    public enum OverflowPolicy {
+        /** The arriving object is dropped */
+        DROP_NEWEST,
+        /** The oldest queued object is dropped to make room */
+        DROP_OLDEST,
+        /** The queued objects are delivered in the thread of the producer, which slows the producer down */
+        CALLER_RUNS
+    }
+
     private final int delay;
+    private final int maxBatchSize;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
     private final Consumer<List<T>> consumer;
-    private final List<T> queue = Collections.synchronizedList(new ArrayList<>());
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
     private final ScheduledExecutorService executor;
-    protected @Nullable ScheduledFuture<?> future;
+    protected volatile @Nullable ScheduledFuture<?> future;
+
+    /** Set by the producer which arms the delay timer, cleared when delivering */
+    private final AtomicBoolean armed = new AtomicBoolean();
+    /** Set while an immediate delivery of a full batch is pending */
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile long armedAtNanos;
+    private final Object deliveryLock = new Object();
+
+    // Statistics
+    private final AtomicLong processedBatches = new AtomicLong();
+    private final AtomicLong processedItems = new AtomicLong();
+    private final AtomicLong droppedItems = new AtomicLong();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
 
     /**
-     * Creates a {@link DelayedBatchProcessing}.
+     * Creates a {@link DelayedBatchProcessing} with unlimited batch size and capacity.
      *
      * @param delay A delay in milliseconds
      * @param consumer A consumer of the list of collected objects
      * @param executor A scheduled executor service
      */
     public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
-        this.delay = delay;
-        this.consumer = consumer;
-        this.executor = executor;
+        this(delay, Integer.MAX_VALUE, Integer.MAX_VALUE, OverflowPolicy.CALLER_RUNS, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing}.
+     *
+     * @param delay A delay in milliseconds
+     * @param maxBatchSize The maximum number of objects delivered at once. A full batch is delivered without waiting
+     *            for the delay.
+     * @param capacity The maximum number of queued objects
+     * @param overflowPolicy Decides what happens to objects arriving while the queue is full
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, int maxBatchSize, int capacity, OverflowPolicy overflowPolicy,
+            Consumer<List<T>> consumer, ScheduledExecutorService executor) {
         if (delay <= 0) {
             throw new IllegalArgumentException("Delay need to be greater than 0!");
         }
+        if (maxBatchSize <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Batch size and capacity need to be greater than 0!");
+        }
+        this.delay = delay;
+        this.maxBatchSize = maxBatchSize;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.consumer = consumer;
+        this.executor = executor;
     }
 
     /**
@@ -63,11 +131,42 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      */
     @Override
     public void accept(T t) {
+        if (queueSize.get() >= capacity && !makeRoom()) {
+            droppedItems.incrementAndGet();
+            return;
+        }
         queue.add(t);
-        final ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture == null || scheduledFuture.isDone()) {
+        int size = queueSize.incrementAndGet();
+
+        if (armed.compareAndSet(false, true)) {
+            armedAtNanos = System.nanoTime();
             this.future = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
         }
+        if (size >= maxBatchSize && flushRequested.compareAndSet(false, true)) {
+            executor.execute(this::run);
+        }
+    }
+
+    /**
+     * Makes room for a new object according to the overflow policy.
+     *
+     * @return false if the new object has to be dropped
+     */
+    private boolean makeRoom() {
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                if (queue.poll() != null) {
+                    queueSize.decrementAndGet();
+                    droppedItems.incrementAndGet();
+                }
+                return true;
+            case CALLER_RUNS:
+                run();
+                return true;
+            case DROP_NEWEST:
+            default:
+                return false;
+        }
     }
 
     /**
@@ -80,12 +179,8 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
         if (scheduledFuture != null && !scheduledFuture.isDone()) {
             scheduledFuture.cancel(false);
         }
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
-        }
-        return lqueue;
+        armed.set(false);
+        return drain(Integer.MAX_VALUE);
     }
 
     /**
@@ -108,14 +203,82 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
     }
 
     private void run() {
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
+        synchronized (deliveryLock) {
+            // Objects arriving from now on arm a new timer
+            armed.set(false);
+            flushRequested.set(false);
+            long latency = System.nanoTime() - armedAtNanos;
+
+            List<T> batch;
+            while (!(batch = drain(maxBatchSize)).isEmpty()) {
+                processedBatches.incrementAndGet();
+                processedItems.addAndGet(batch.size());
+                largestBatch.accumulateAndGet(batch.size(), Math::max);
+                totalLatencyNanos.addAndGet(latency);
+                maxLatencyNanos.accumulateAndGet(latency, Math::max);
+                consumer.accept(batch);
+            }
         }
+    }
 
-        if (!lqueue.isEmpty()) {
-            consumer.accept(lqueue);
+    private List<T> drain(int maxSize) {
+        List<T> batch = new ArrayList<>(Math.min(maxSize, Math.max(queueSize.get(), 0)));
+        T t;
+        while (batch.size() < maxSize && (t = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            batch.add(t);
         }
+        return batch;
+    }
+
+    /**
+     * Returns the number of batches delivered to the consumer.
+     */
+    public long getProcessedBatches() {
+        return processedBatches.get();
+    }
+
+    /**
+     * Returns the number of objects delivered to the consumer.
+     */
+    public long getProcessedItems() {
+        return processedItems.get();
+    }
+
+    /**
+     * Returns the number of objects dropped because the queue was full.
+     */
+    public long getDroppedItems() {
+        return droppedItems.get();
+    }
+
+    /**
+     * Returns the size of the largest batch delivered to the consumer.
+     */
+    public int getLargestBatch() {
+        return largestBatch.get();
+    }
+
+    /**
+     * Returns the average size of the batches delivered to the consumer.
+     */
+    public double getAverageBatchSize() {
+        long batches = processedBatches.get();
+        return batches == 0 ? 0 : (double) processedItems.get() / batches;
+    }
+
+    /**
+     * Returns the average time in milliseconds from the first object of a batch being queued to the delivery.
+     */
+    public double getAverageLatencyMillis() {
+        long batches = processedBatches.get();
+        return batches == 0 ? 0 : totalLatencyNanos.get() / 1e6 / batches;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds from the first object of a batch being queued to the delivery.
+     */
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1e6;
     }
 }
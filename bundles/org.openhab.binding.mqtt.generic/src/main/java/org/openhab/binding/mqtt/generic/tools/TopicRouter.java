@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+
+/**
+ * <p>
+ * Subscribes once to a wildcard topic ("base/topic/#") and routes all received messages locally to
+ * subscribers of single topics below that base topic.
+ * </p>
+ *
+ * <p>
+ * Subscribing to hundreds of single topics one after another costs a broker round-trip each. With this router
+ * there is only one broker subscription and all retained messages below the base topic arrive in one go.
+ * Those messages are kept in a topic trie, so that a subscriber that registers later, for example
+ * for a Homie node that has just been announced by its device, immediately receives the retained value
+ * without asking the broker again.
+ * </p>
+ *
+ * Usage:
+ *
+ * <pre>
+ * TopicRouter router = new TopicRouter("homie/device");
+ * router.start(connection).thenRun(() -> router.subscribe("homie/device/$name", subscriber));
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TopicRouter implements MqttMessageSubscriber {
+    private final String baseTopic;
+    private final TrieNode root = new TrieNode();
+    private @Nullable MqttBrokerConnection connection;
+    private @Nullable Predicate<String> retainFilter;
+    private long routedMessages;
+
+    /**
+     * One topic level. Children are addressed by the next topic level.
+     */
+    private static class TrieNode {
+        final Map<String, TrieNode> children = new HashMap<>();
+        final List<MqttMessageSubscriber> subscribers = new ArrayList<>(1);
+        byte @Nullable [] retained;
+
+        boolean isEmpty() {
+            return children.isEmpty() && subscribers.isEmpty() && retained == null;
+        }
+    }
+
+    /**
+     * Creates a router for all topics below the given base topic.
+     *
+     * @param baseTopic A topic without a trailing slash and without wildcards, e.g. "homie/device".
+     */
+    public TopicRouter(String baseTopic) {
+        this.baseTopic = baseTopic;
+    }
+
+    /**
+     * @return The wildcard topic this router subscribes to.
+     */
+    public String getWildcardTopic() {
+        return baseTopic + "/#";
+    }
+
+    /**
+     * Subscribe to the wildcard topic on the given connection.
+     *
+     * @param connection A broker connection
+     * @return A future that completes as soon as the broker acknowledged the subscription.
+     */
+    public CompletableFuture<Boolean> start(MqttBrokerConnection connection) {
+        synchronized (this) {
+            this.connection = connection;
+        }
+        return connection.subscribe(getWildcardTopic(), this);
+    }
+
+    /**
+     * Unsubscribe from the wildcard topic and forget all retained values and local subscribers.
+     *
+     * @return A future that completes as soon as the broker acknowledged the removal.
+     */
+    public CompletableFuture<Boolean> stop() {
+        final MqttBrokerConnection connection;
+        synchronized (this) {
+            connection = this.connection;
+            this.connection = null;
+            root.children.clear();
+            root.subscribers.clear();
+            root.retained = null;
+            retainFilter = null;
+        }
+        if (connection == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return connection.unsubscribe(getWildcardTopic(), this);
+    }
+
+    /**
+     * Return true if the given topic is the base topic of this router or below it.
+     */
+    public boolean covers(String topic) {
+        return topic.startsWith(baseTopic)
+                && (topic.length() == baseTopic.length() || topic.charAt(baseTopic.length()) == '/');
+    }
+
+    /**
+     * Register a subscriber for a single topic. If a retained value for that topic has been received already, the
+     * subscriber is called with it before this method returns.
+     *
+     * @param topic A topic {@link #covers(String) covered} by this router, without wildcards.
+     * @param subscriber The subscriber
+     * @return A completed future. The signature matches {@link MqttBrokerConnection#subscribe(String,
+     *         MqttMessageSubscriber)}.
+     */
+    public synchronized CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
+        if (!covers(topic)) {
+            throw new IllegalArgumentException("Topic " + topic + " is not covered by " + getWildcardTopic());
+        }
+        TrieNode node = find(topic, true);
+        if (node == null) {
+            // Unreachable, find() creates missing nodes
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!node.subscribers.contains(subscriber)) {
+            node.subscribers.add(subscriber);
+        }
+        final byte[] retained = node.retained;
+        if (retained != null) {
+            subscriber.processMessage(topic, retained);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Remove a subscriber of a single topic.
+     *
+     * @param topic A topic below the base topic.
+     * @param subscriber The subscriber
+     * @return A completed future. The signature matches {@link MqttBrokerConnection#unsubscribe(String,
+     *         MqttMessageSubscriber)}.
+     */
+    public synchronized CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+        TrieNode node = find(topic, false);
+        return CompletableFuture.completedFuture(node != null && node.subscribers.remove(subscriber));
+    }
+
+    /**
+     * Keep the retained values of the topics accepted by the given filter only, for example only the attribute topics
+     * once a device has been discovered. Already known values of other topics are dropped. Messages of those topics
+     * are still given to their local subscribers, but they are not remembered and do not grow the topic trie anymore.
+     *
+     * @param topicFilter Returns true for topics to keep the retained value of
+     */
+    public synchronized void retainOnly(Predicate<String> topicFilter) {
+        retainFilter = topicFilter;
+        retainOnly(root, baseTopic, topicFilter);
+    }
+
+    private static void retainOnly(TrieNode node, String topic, Predicate<String> topicFilter) {
+        if (node.retained != null && !topicFilter.test(topic)) {
+            node.retained = null;
+        }
+        node.children.entrySet().removeIf(child -> {
+            retainOnly(child.getValue(), topic + "/" + child.getKey(), topicFilter);
+            return child.getValue().isEmpty();
+        });
+    }
+
+    /**
+     * Messages received via the wildcard subscription. The payload is remembered as the retained value of the topic
+     * and given to all local subscribers of that topic. An empty payload removes the retained value. Topics rejected
+     * by the {@link #retainOnly(Predicate)} filter are only given to their local subscribers.
+     *
+     * Subscribers are called while holding the router lock. This keeps the order of a replayed retained value
+     * and newer messages intact.
+     */
+    @Override
+    public synchronized void processMessage(String topic, byte[] payload) {
+        if (!covers(topic)) {
+            return;
+        }
+        final Predicate<String> retainFilter = this.retainFilter;
+        final boolean retain = retainFilter == null || retainFilter.test(topic);
+        TrieNode node = find(topic, retain && payload.length > 0);
+        if (node == null) {
+            return;
+        }
+        if (retain) {
+            node.retained = payload.length > 0 ? payload : null;
+        }
+        routedMessages++;
+        for (MqttMessageSubscriber subscriber : node.subscribers.toArray(new MqttMessageSubscriber[0])) {
+            subscriber.processMessage(topic, payload);
+        }
+    }
+
+    /**
+     * Walks the trie level by level.
+     *
+     * @param topic A topic below the base topic
+     * @param create Create missing levels
+     * @return The trie node of the topic or null if it does not exist and should not be created
+     */
+    private @Nullable TrieNode find(String topic, boolean create) {
+        TrieNode node = root;
+        int start = baseTopic.length() + 1;
+        while (start <= topic.length()) {
+            int end = topic.indexOf('/', start);
+            if (end < 0) {
+                end = topic.length();
+            }
+            final String level = topic.substring(start, end);
+            TrieNode child = node.children.get(level);
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = new TrieNode();
+                node.children.put(level, child);
+            }
+            node = child;
+            start = end + 1;
+        }
+        return node;
+    }
+
+    /**
+     * Forget the retained values of the given topic and all topics below it, for example after a Homie node
+     * has been removed. Local subscribers are kept.
+     *
+     * @param topic A topic below the base topic
+     */
+    public synchronized void clearRetained(String topic) {
+        TrieNode node = find(topic, false);
+        if (node != null) {
+            clearRetained(node);
+        }
+    }
+
+    private static void clearRetained(TrieNode node) {
+        node.retained = null;
+        node.children.values().removeIf(child -> {
+            clearRetained(child);
+            return child.isEmpty();
+        });
+    }
+
+    /**
+     * @return The number of topics below the base topic a retained value is known for.
+     */
+    public synchronized int getRetainedCount() {
+        return countRetained(root);
+    }
+
+    private static int countRetained(TrieNode node) {
+        int count = node.retained != null ? 1 : 0;
+        for (TrieNode child : node.children.values()) {
+            count += countRetained(child);
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of messages received via the wildcard subscription.
+     */
+    public synchronized long getRoutedMessages() {
+        return routedMessages;
+    }
+}
@@ -96,6 +96,32 @@ public class NumberValue extends Value {
         }
     }
 
+    @Override
+    public @Nullable Command parseCommand(String value) {
+        try {
+            return DecimalType.valueOf(value);
+        } catch (NumberFormatException e) {
+            switch (value) {
+                case "INCREASE":
+                    return IncreaseDecreaseType.INCREASE;
+                case "DECREASE":
+                    return IncreaseDecreaseType.DECREASE;
+                case "UP":
+                    return UpDownType.UP;
+                case "DOWN":
+                    return UpDownType.DOWN;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        DecimalType number = parseDecimal(payload);
+        return number != null ? number : super.parseCommand(payload);
+    }
+
     @Override
     public StateDescription createStateDescription(String unit, boolean readOnly) {
         return new StateDescription(min, max, step, "%s " + unit.replace("%", "%%"), readOnly, Collections.emptyList());
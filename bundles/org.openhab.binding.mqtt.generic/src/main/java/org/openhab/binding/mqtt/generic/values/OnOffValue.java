@@ -86,6 +86,26 @@ public class OnOffValue extends Value {
         }
     }
 
+    @Override
+    public @Nullable Command parseCommand(String value) {
+        if (OnOffType.ON.name().equals(value)) {
+            return OnOffType.ON;
+        } else if (OnOffType.OFF.name().equals(value)) {
+            return OnOffType.OFF;
+        }
+        return new StringType(value);
+    }
+
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        if (payloadEquals(payload, OnOffType.ON.name())) {
+            return OnOffType.ON;
+        } else if (payloadEquals(payload, OnOffType.OFF.name())) {
+            return OnOffType.OFF;
+        }
+        return super.parseCommand(payload);
+    }
+
     @Override
     public String getMQTTpublishValue() {
         return (state == OnOffType.ON) ? onCommand : offCommand;
@@ -69,6 +69,26 @@ public class OpenCloseValue extends Value {
         }
     }
 
+    @Override
+    public @Nullable Command parseCommand(String value) {
+        if (OpenClosedType.OPEN.name().equals(value)) {
+            return OpenClosedType.OPEN;
+        } else if (OpenClosedType.CLOSED.name().equals(value)) {
+            return OpenClosedType.CLOSED;
+        }
+        return new StringType(value);
+    }
+
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        if (payloadEquals(payload, OpenClosedType.OPEN.name())) {
+            return OpenClosedType.OPEN;
+        } else if (payloadEquals(payload, OpenClosedType.CLOSED.name())) {
+            return OpenClosedType.CLOSED;
+        }
+        return super.parseCommand(payload);
+    }
+
     @Override
     public String getMQTTpublishValue() {
         return (state == OpenClosedType.OPEN) ? openString : closeString;
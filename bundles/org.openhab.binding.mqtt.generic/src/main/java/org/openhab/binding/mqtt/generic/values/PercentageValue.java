@@ -120,6 +120,36 @@ public class PercentageValue extends Value {
         }
     }
 
+    @Override
+    public @Nullable Command parseCommand(String value) {
+        try {
+            return DecimalType.valueOf(value);
+        } catch (NumberFormatException e) {
+            switch (value) {
+                case "INCREASE":
+                    return IncreaseDecreaseType.INCREASE;
+                case "DECREASE":
+                    return IncreaseDecreaseType.DECREASE;
+                case "ON":
+                    return OnOffType.ON;
+                case "OFF":
+                    return OnOffType.OFF;
+                case "UP":
+                    return UpDownType.UP;
+                case "DOWN":
+                    return UpDownType.DOWN;
+                default:
+                    return new StringType(value);
+            }
+        }
+    }
+
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        DecimalType number = parseDecimal(payload);
+        return number != null ? number : super.parseCommand(payload);
+    }
+
     @Override
     public String getMQTTpublishValue() {
         if (state == UnDefType.UNDEF) {
@@ -14,7 +14,9 @@ package org.openhab.binding.mqtt.generic.values;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
@@ -27,6 +29,7 @@ import org.eclipse.smarthome.core.library.types.RawType;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.StateDescription;
+import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.core.types.UnDefType;
 
 /**
@@ -80,6 +83,90 @@ public abstract class Value {
         return commandTypes;
     }
 
+    /**
+     * Parses an incoming MQTT value into one of the {@link #getSupportedCommandTypes()}.
+     * <p>
+     * The default implementation tries the command types in order by reflection, see {@link TypeParser}.
+     * Subclasses with a fixed list of command types override this with a typed parser.
+     * </p>
+     *
+     * @param value The (transformed) MQTT value
+     * @return The command or null if the value cannot be parsed into any of the supported command types
+     */
+    public @Nullable Command parseCommand(String value) {
+        return TypeParser.parseCommand(commandTypes, value);
+    }
+
+    /**
+     * Parses an untransformed MQTT payload into one of the {@link #getSupportedCommandTypes()}.
+     * <p>
+     * The default implementation decodes the payload as UTF-8 string and calls {@link #parseCommand(String)}.
+     * Subclasses may parse common payloads, like plain numbers, straight from the bytes.
+     * </p>
+     *
+     * @param payload The MQTT payload
+     * @return The command or null if the payload cannot be parsed into any of the supported command types
+     */
+    public @Nullable Command parseCommand(byte[] payload) {
+        return parseCommand(new String(payload, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a plain decimal number like "-12.50" straight from the payload bytes.
+     *
+     * @param payload The MQTT payload
+     * @return The number or null if the payload is not a plain decimal number with up to 18 digits. Such payloads
+     *         need to be parsed as string.
+     */
+    protected static @Nullable DecimalType parseDecimal(byte[] payload) {
+        int length = payload.length;
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (payload[0] == '-' || payload[0] == '+')) {
+            negative = payload[0] == '-';
+            index++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; index < length; index++) {
+            byte b = payload[index];
+            if (b >= '0' && b <= '9') {
+                if (++digits > 18) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + (b - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0 && digits > 0) {
+                scale = 0;
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0 || scale == 0) {
+            return null;
+        }
+        return new DecimalType(BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0)));
+    }
+
+    /**
+     * Returns true if the payload consists of exactly the ASCII characters of the given string.
+     */
+    protected static boolean payloadEquals(byte[] payload, String value) {
+        int length = value.length();
+        if (payload.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (payload[i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns the item-type (one of {@link CoreItemFactory}).
      */
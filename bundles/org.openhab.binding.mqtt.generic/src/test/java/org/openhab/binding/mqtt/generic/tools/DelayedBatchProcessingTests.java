@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing.OverflowPolicy;
+
+/**
+ * Tests the {@link DelayedBatchProcessing} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class DelayedBatchProcessingTests {
+    private ScheduledExecutorService scheduler;
+    private final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        scheduler = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void delayedDelivery() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(50, batch -> {
+            batches.add(batch);
+            delivered.countDown();
+        }, scheduler);
+
+        processing.accept(1);
+        processing.accept(2);
+        assertThat(processing.isArmed(), is(true));
+
+        assertThat(delivered.await(1, TimeUnit.SECONDS), is(true));
+        assertThat(batches, is(Collections.singletonList(Arrays.asList(1, 2))));
+        assertThat(processing.getProcessedBatches(), is(1L));
+        assertThat(processing.getAverageBatchSize(), is(2.0));
+    }
+
+    @Test
+    public void fullBatchIsDeliveredImmediately() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(60000, 2, 10,
+                OverflowPolicy.DROP_NEWEST, batch -> {
+                    batches.add(batch);
+                    delivered.countDown();
+                }, scheduler);
+
+        processing.accept(1);
+        processing.accept(2);
+
+        assertThat(delivered.await(1, TimeUnit.SECONDS), is(true));
+        assertThat(batches, is(Collections.singletonList(Arrays.asList(1, 2))));
+    }
+
+    @Test
+    public void overflowPolicies() {
+        DelayedBatchProcessing<Integer> dropNewest = new DelayedBatchProcessing<>(60000, 10, 2,
+                OverflowPolicy.DROP_NEWEST, batches::add, scheduler);
+        DelayedBatchProcessing<Integer> dropOldest = new DelayedBatchProcessing<>(60000, 10, 2,
+                OverflowPolicy.DROP_OLDEST, batches::add, scheduler);
+        DelayedBatchProcessing<Integer> callerRuns = new DelayedBatchProcessing<>(60000, 10, 2,
+                OverflowPolicy.CALLER_RUNS, batches::add, scheduler);
+        for (int i = 1; i <= 3; i++) {
+            dropNewest.accept(i);
+            dropOldest.accept(i);
+            callerRuns.accept(i);
+        }
+
+        assertThat(dropNewest.join(), is(Arrays.asList(1, 2)));
+        assertThat(dropNewest.getDroppedItems(), is(1L));
+        assertThat(dropOldest.join(), is(Arrays.asList(2, 3)));
+        assertThat(dropOldest.getDroppedItems(), is(1L));
+        assertThat(callerRuns.join(), is(Arrays.asList(3)));
+        assertThat(batches, is(Collections.singletonList(Arrays.asList(1, 2))));
+        assertThat(callerRuns.getDroppedItems(), is(0L));
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
+import org.openhab.binding.mqtt.generic.mapping.TopicPrefix;
+
+/**
+ * Tests cases for {@link TopicRouter}.
+ *
+ * @author agent - Initial contribution
+ */
+public class TopicRouterTests {
+    @TopicPrefix
+    public static class Attributes extends AbstractMqttAttributeClass {
+        public String name;
+        public int count;
+
+        @Override
+        public @NonNull Object getFieldsOf() {
+            return this;
+        }
+    }
+
+    @Mock
+    MqttBrokerConnection connection;
+
+    @Mock
+    MqttMessageSubscriber subscriber;
+
+    ScheduledExecutorService scheduler;
+
+    TopicRouter router = new TopicRouter("homie/device");
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        router.start(connection);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void singleWildcardSubscription() {
+        verify(connection).subscribe(eq("homie/device/#"), eq(router));
+        assertTrue(router.covers("homie/device"));
+        assertTrue(router.covers("homie/device/node/$name"));
+        assertFalse(router.covers("homie/device2/$name"));
+        assertFalse(router.covers("homie"));
+
+        router.stop();
+        verify(connection).unsubscribe(eq("homie/device/#"), eq(router));
+    }
+
+    @Test
+    public void retainedValueIsReplayedOnSubscribe() {
+        byte[] payload = bytes("Lamp");
+        router.processMessage("homie/device/node/$name", payload);
+        router.processMessage("homie/device/node/$type", bytes("light"));
+        router.processMessage("homie/other/node/$name", bytes("ignored"));
+        assertThat(router.getRetainedCount(), is(2));
+
+        router.subscribe("homie/device/node/$name", subscriber);
+        verify(subscriber).processMessage("homie/device/node/$name", payload);
+
+        // Live messages are routed by topic
+        router.processMessage("homie/device/node/$name", bytes("Lamp 2"));
+        router.processMessage("homie/device/node/$type", bytes("dimmer"));
+        verify(subscriber, times(2)).processMessage(eq("homie/device/node/$name"), any());
+        verify(subscriber, never()).processMessage(eq("homie/device/node/$type"), any());
+
+        router.unsubscribe("homie/device/node/$name", subscriber);
+        router.processMessage("homie/device/node/$name", bytes("Lamp 3"));
+        verify(subscriber, times(2)).processMessage(eq("homie/device/node/$name"), any());
+    }
+
+    @Test
+    public void emptyPayloadRemovesRetainedValue() {
+        router.processMessage("homie/device/node/$name", bytes("Lamp"));
+        router.processMessage("homie/device/node/$name", new byte[0]);
+        assertThat(router.getRetainedCount(), is(0));
+
+        router.subscribe("homie/device/node/$name", subscriber);
+        verify(subscriber, never()).processMessage(any(), any());
+    }
+
+    @Test
+    public void clearRetainedOfSubtree() {
+        router.processMessage("homie/device/$name", bytes("Device"));
+        router.processMessage("homie/device/node/$name", bytes("Lamp"));
+        router.processMessage("homie/device/node/prop/$name", bytes("Power"));
+        router.processMessage("homie/device/node2/$name", bytes("Lamp"));
+
+        router.clearRetained("homie/device/node");
+        assertThat(router.getRetainedCount(), is(2));
+        assertThat(router.getRoutedMessages(), is(4L));
+    }
+
+    @Test
+    public void onlyFilteredTopicsAreRetained() {
+        router.processMessage("homie/device/$name", bytes("Device"));
+        router.processMessage("homie/device/node/prop", bytes("1"));
+        router.processMessage("homie/device/node/prop/$name", bytes("Power"));
+
+        router.retainOnly(topic -> topic.contains("/$"));
+        assertThat(router.getRetainedCount(), is(2));
+
+        // Values are not remembered anymore, but still routed to subscribers
+        router.processMessage("homie/device/node/other", bytes("2"));
+        router.subscribe("homie/device/node/prop", subscriber);
+        router.processMessage("homie/device/node/prop", bytes("3"));
+        assertThat(router.getRetainedCount(), is(2));
+        verify(subscriber, times(1)).processMessage(any(), any());
+        verify(subscriber).processMessage(eq("homie/device/node/prop"), eq(bytes("3")));
+
+        router.processMessage("homie/device/$name", bytes("Device 2"));
+        router.subscribe("homie/device/$name", subscriber);
+        verify(subscriber).processMessage(eq("homie/device/$name"), eq(bytes("Device 2")));
+    }
+
+    @Test
+    public void attributeClassIsServedByRouter() throws Exception {
+        router.processMessage("homie/device/$name", bytes("Device"));
+        router.processMessage("homie/device/$count", bytes("12"));
+
+        Attributes attributes = new Attributes();
+        attributes.setTopicRouter(router);
+        attributes.subscribeAndReceive(connection, scheduler, "homie/device", null, 10000).get(100,
+                TimeUnit.MILLISECONDS);
+
+        assertThat(attributes.name, is("Device"));
+        assertThat(attributes.count, is(12));
+        // Only the wildcard subscription went to the broker
+        verify(connection, times(1)).subscribe(any(), any());
+
+        router.processMessage("homie/device/$count", bytes("13"));
+        assertThat(attributes.count, is(13));
+
+        attributes.unsubscribe();
+        router.processMessage("homie/device/$count", bytes("14"));
+        assertThat(attributes.count, is(13));
+        verify(connection, never()).unsubscribe(any(), any());
+    }
+}
@@ -16,6 +16,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.HSBType;
@@ -254,4 +255,25 @@ public class ValueTests {
                 null);
         v.update(new DecimalType(9.0));
     }
+
+    @Test
+    public void typedParsersMatchTypeParser() {
+        Value[] values = { new NumberValue(null, null, null), new PercentageValue(null, null, null, null, null),
+                new OnOffValue(), new OpenCloseValue(), new TextValue() };
+        String[] inputs = { "15", "-0.50", "+3", "007", "1e3", ".5", "5.", "-", "1234567890123456789012", "INCREASE",
+                "DECREASE", "UP", "DOWN", "ON", "OFF", "OPEN", "CLOSED", "on", "", " 1", "text" };
+
+        for (Value v : values) {
+            for (String input : inputs) {
+                String expected = describe(p(v, input));
+                String message = v.getClass().getSimpleName() + " '" + input + "'";
+                assertThat(message, describe(v.parseCommand(input)), is(expected));
+                assertThat(message, describe(v.parseCommand(input.getBytes(StandardCharsets.UTF_8))), is(expected));
+            }
+        }
+    }
+
+    private static String describe(Command command) {
+        return command == null ? "null" : command.getClass().getSimpleName() + ":" + command.toString();
+    }
 }
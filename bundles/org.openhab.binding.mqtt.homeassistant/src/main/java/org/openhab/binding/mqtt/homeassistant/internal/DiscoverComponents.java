@@ -28,6 +28,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
+import org.openhab.binding.mqtt.homeassistant.internal.util.ConfigCache;
 import org.openhab.binding.mqtt.homeassistant.internal.util.FutureCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +57,8 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     protected @NonNullByDefault({}) ComponentDiscovered discoveredListener;
     private int discoverTime;
     private Set<String> topics = new HashSet<>();
+    // Components by config topic. Survives stop/start, so retained configs replayed on a reconnect are not parsed again
+    private final ConfigCache<AbstractComponent<?>> componentCache = new ConfigCache<>();
 
     /**
      * Implement this to get notified of new components
@@ -88,13 +91,14 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         }
 
         HaID haID = new HaID(topic);
-        String config = new String(payload);
 
         AbstractComponent<?> component = null;
 
-        if (config.length() > 0) {
-            component = CFactory.createComponent(thingUID, haID, config, updateListener, gson,
-                    transformationServiceProvider);
+        if (payload.length > 0) {
+            component = componentCache.get(topic, payload, p -> CFactory.createComponent(thingUID, haID,
+                    new String(p), updateListener, gson, transformationServiceProvider));
+        } else {
+            componentCache.remove(topic);
         }
         if (component != null) {
             component.setConfigSeen();
@@ -104,7 +108,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
                 discoveredListener.componentDiscovered(haID, component);
             }
         } else {
-            logger.debug("Configuration of HomeAssistant thing {} invalid: {}", haID.objectID, config);
+            logger.debug("Configuration of HomeAssistant thing {} invalid: {}", haID.objectID, new String(payload));
         }
     }
 
@@ -173,6 +177,14 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         return null;
     }
 
+    /**
+     * Returns the cache of already parsed component configurations. Unchanged configurations are recognised by their
+     * content and the known component is reported again instead of a newly created one.
+     */
+    public ConfigCache<AbstractComponent<?>> getComponentCache() {
+        return componentCache;
+    }
+
     /**
      * Stops an ongoing discovery or do nothing if no discovery is running.
      *
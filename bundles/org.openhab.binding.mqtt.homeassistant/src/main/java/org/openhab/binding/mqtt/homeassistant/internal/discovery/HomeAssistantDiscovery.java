@@ -44,6 +44,7 @@ import org.openhab.binding.mqtt.homeassistant.internal.BaseChannelConfiguration;
 import org.openhab.binding.mqtt.homeassistant.internal.ChannelConfigurationTypeAdapterFactory;
 import org.openhab.binding.mqtt.homeassistant.internal.HaID;
 import org.openhab.binding.mqtt.homeassistant.internal.HandlerConfiguration;
+import org.openhab.binding.mqtt.homeassistant.internal.util.ConfigCache;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
@@ -69,6 +70,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
     private @Nullable ScheduledFuture<?> future;
     private final Gson gson;
+    // Parsed configurations by topic, retained configs are replayed on every broker reconnect
+    protected final ConfigCache<BaseChannelConfiguration> configCache = new ConfigCache<>();
 
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
     {
@@ -145,8 +148,11 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         }
         this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
 
-        BaseChannelConfiguration config = BaseChannelConfiguration
-                .fromString(new String(payload, StandardCharsets.UTF_8), gson);
+        BaseChannelConfiguration config = configCache.get(topic, payload,
+                p -> BaseChannelConfiguration.fromString(new String(p, StandardCharsets.UTF_8), gson));
+        if (config == null) {
+            return;
+        }
 
         // We will of course find multiple of the same unique Thing IDs, for each different component another one.
         // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
@@ -207,6 +213,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
+        configCache.remove(topic);
         if (thingIDPerTopic.containsKey(topic)) {
             ThingUID thingUID = thingIDPerTopic.remove(topic);
             final String thingID = thingUID.getId();
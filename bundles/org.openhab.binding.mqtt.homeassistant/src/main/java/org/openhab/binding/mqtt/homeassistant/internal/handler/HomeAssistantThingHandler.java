@@ -159,6 +159,9 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
             if (component != null) {
                 haComponents.put(component.uid().getId(), component);
                 component.addChannelTypes(channelTypeProvider);
+                // The retained config will most likely be the same, no need to parse it again on the first connect
+                discoverComponents.getComponentCache().put(haID.getTopic("config"),
+                        channelConfigurationJSON.getBytes(), component);
             } else {
                 logger.warn("Could not restore component {}", thing);
             }
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Caches the result of parsing a retained HomeAssistant configuration topic, keyed by the topic and a hash of the
+ * payload.
+ *
+ * On every broker reconnect all retained "config" topics are delivered again. Most of them did not change, so the
+ * payload is compared to the one seen before and the previously parsed object is handed out again instead of
+ * parsing the JSON and building the component once more. Only topics with a changed payload are parsed.
+ *
+ * A failed parse (the parser returning null) is cached as well, so that invalid configurations are not parsed over
+ * and over again.
+ *
+ * @author agent - Initial contribution
+ * @param <T> The parsed type
+ */
+@NonNullByDefault
+public class ConfigCache<T> {
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static class Entry<T> {
+        final int hash;
+        final byte[] payload;
+        final @Nullable T value;
+
+        Entry(int hash, byte[] payload, @Nullable T value) {
+            this.hash = hash;
+            this.payload = payload;
+            this.value = value;
+        }
+
+        boolean matches(int hash, byte[] payload) {
+            return this.hash == hash && Arrays.equals(this.payload, payload);
+        }
+    }
+
+    /**
+     * Returns the cached object for the given topic if the payload did not change, otherwise parses the payload
+     * and remembers the result.
+     *
+     * @param topic The configuration topic
+     * @param payload The retained payload
+     * @param parser Called with the payload if it is not known yet
+     * @return The parsed object or null if the parser returned null
+     */
+    public @Nullable T get(String topic, byte[] payload, Function<byte[], @Nullable T> parser) {
+        final int hash = Arrays.hashCode(payload);
+        Entry<T> entry = entries.get(topic);
+        if (entry != null && entry.matches(hash, payload)) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        misses.incrementAndGet();
+        // Parse outside of the map lock, a concurrent parse of the same topic only costs some time
+        entry = new Entry<>(hash, payload.clone(), parser.apply(payload));
+        entries.put(topic, entry);
+        return entry.value;
+    }
+
+    /**
+     * Remembers an object that has been parsed elsewhere, for example restored from a persisted configuration.
+     *
+     * @param topic The configuration topic
+     * @param payload The payload the object has been parsed from
+     * @param value The parsed object
+     */
+    public void put(String topic, byte[] payload, T value) {
+        entries.put(topic, new Entry<>(Arrays.hashCode(payload), payload.clone(), value));
+    }
+
+    /**
+     * Forget the given topic, for example because the configuration has been removed.
+     *
+     * @param topic The configuration topic
+     */
+    public void remove(String topic) {
+        entries.remove(topic);
+    }
+
+    /**
+     * Forget all topics.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of lookups that could skip parsing
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of lookups that needed to parse the payload
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigCache[size=" + entries.size() + ", hits=" + hits + ", misses=" + misses + "]";
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.util;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link ConfigCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ConfigCacheTests {
+    private static final String TOPIC = "homeassistant/switch/node/name/config";
+
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    private String parse(byte[] payload) {
+        parsed.incrementAndGet();
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void unchangedPayloadIsNotParsedAgain() {
+        ConfigCache<String> cache = new ConfigCache<>();
+
+        String first = cache.get(TOPIC, "{\"name\":\"a\"}".getBytes(), this::parse);
+        String second = cache.get(TOPIC, "{\"name\":\"a\"}".getBytes(), this::parse);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(parsed.get(), is(1));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    public void changedPayloadIsParsed() {
+        ConfigCache<String> cache = new ConfigCache<>();
+
+        cache.get(TOPIC, "{\"name\":\"a\"}".getBytes(), this::parse);
+        String changed = cache.get(TOPIC, "{\"name\":\"b\"}".getBytes(), this::parse);
+        cache.get("homeassistant/switch/node/other/config", "{\"name\":\"b\"}".getBytes(), this::parse);
+
+        assertThat(changed, is("{\"name\":\"b\"}"));
+        assertThat(parsed.get(), is(3));
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    public void invalidConfigurationIsRemembered() {
+        ConfigCache<String> cache = new ConfigCache<>();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.get(TOPIC, "invalid".getBytes(), p -> {
+                parsed.incrementAndGet();
+                return null;
+            }), is(nullValue()));
+        }
+        assertThat(parsed.get(), is(1));
+    }
+
+    @Test
+    public void putAndRemove() {
+        ConfigCache<String> cache = new ConfigCache<>();
+        byte[] payload = "{\"name\":\"a\"}".getBytes();
+
+        cache.put(TOPIC, payload, "restored");
+        // Modifying the array passed in must not affect the cache
+        payload[0] = 0;
+        assertThat(cache.get(TOPIC, "{\"name\":\"a\"}".getBytes(), this::parse), is("restored"));
+        assertThat(parsed.get(), is(0));
+
+        cache.remove(TOPIC);
+        assertThat(cache.get(TOPIC, "{\"name\":\"a\"}".getBytes(), this::parse), is("{\"name\":\"a\"}"));
+        assertThat(parsed.get(), is(1));
+    }
+}
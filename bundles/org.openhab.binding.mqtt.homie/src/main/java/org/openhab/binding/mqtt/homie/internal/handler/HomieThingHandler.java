@@ -101,6 +101,7 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
             return;
         }
         device.initialize(config.basetopic, config.deviceid, thing.getChannels());
+        device.setPipelinedDiscovery(config.pipelined);
         super.initialize();
     }
 
@@ -29,6 +29,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.generic.ChannelConfig;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
 import org.openhab.binding.mqtt.generic.tools.ChildMap;
+import org.openhab.binding.mqtt.generic.tools.TopicRouter;
 import org.openhab.binding.mqtt.homie.internal.handler.HomieThingHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +65,9 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     private String topic = "";
     public String deviceID = "";
     private boolean initialized = false;
+    // Pipelined discovery: One wildcard subscription for the whole device tree
+    private boolean pipelined = false;
+    private @Nullable TopicRouter router;
 
     /**
      * Creates a Homie Device structure. It consists of device attributes, device statistics and nodes.
@@ -113,15 +117,64 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
             throw new IllegalStateException("You must call initialize()!");
         }
 
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        return startRouter(connection)
+                .thenCompose(r -> attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout))
                 // On success, create all nodes and tell the handler about the ready state
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
                 // No matter if values have been received or not -> the subscriptions have been performed
                 .whenComplete((r, e) -> {
                     initialized = true;
+                    // Discovery is done. Property values are subscribed on the connection, only attribute
+                    // changes are still served by the router
+                    final TopicRouter router = this.router;
+                    if (router != null) {
+                        router.retainOnly(Device::isAttributeTopic);
+                    }
                 });
     }
 
+    /**
+     * @return True for Homie attribute topics like "homie/device/node/$name"
+     */
+    private static boolean isAttributeTopic(String topic) {
+        return topic.startsWith("$", topic.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Enables or disables the pipelined discovery. If enabled, {@link #subscribe(MqttBrokerConnection,
+     * ScheduledExecutorService, int)} subscribes once to "basetopic/deviceid/#" and device, node and property
+     * attributes are all served from that single subscription. Without it, every attribute topic is subscribed
+     * on its own and the tree is discovered level by level.
+     *
+     * @param pipelined True to enable the pipelined discovery. Takes effect with the next subscribe.
+     */
+    public void setPipelinedDiscovery(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Subscribes to the wildcard topic of this device if the pipelined discovery is enabled. If that fails, the
+     * attributes are subscribed one by one as usual.
+     */
+    private CompletableFuture<@Nullable Void> startRouter(MqttBrokerConnection connection) {
+        if (!pipelined) {
+            attributes.setTopicRouter(null);
+            return CompletableFuture.completedFuture(null);
+        }
+        final TopicRouter router = new TopicRouter(topic);
+        this.router = router;
+        attributes.setTopicRouter(router);
+        return router.start(connection).handle((b, e) -> {
+            if (e != null || !Boolean.TRUE.equals(b)) {
+                logger.debug("Could not subscribe to {}. Subscribing to single topics instead",
+                        router.getWildcardTopic(), e);
+                this.router = null;
+                attributes.setTopicRouter(null);
+            }
+            return null;
+        });
+    }
+
     public CompletableFuture<@Nullable Void> attributesReceived(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
         callback.readyStateChanged(attributes.state);
@@ -174,8 +227,15 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * Unsubscribe from everything.
      */
     public CompletableFuture<@Nullable Void> stop() {
-        return attributes.unsubscribe().thenCompose(
+        final TopicRouter router = this.router;
+        this.router = null;
+        CompletableFuture<@Nullable Void> stopped = attributes.unsubscribe().thenCompose(
                 b -> CompletableFuture.allOf(nodes.stream().map(n -> n.stop()).toArray(CompletableFuture[]::new)));
+        if (router != null) {
+            stopped = stopped.thenCompose(b -> router.stop()).thenRun(() -> {
+            });
+        }
+        return stopped;
     }
 
     /**
@@ -269,14 +329,21 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      */
     protected void notifyNodeRemoved(Node node) {
         node.stop();
+        final TopicRouter router = this.router;
+        if (router != null) {
+            router.clearRetained(topic + "/" + node.nodeID);
+        }
         node.properties.stream().forEach(property -> node.notifyPropertyRemoved(property));
         callback.nodeRemoved(node);
     }
 
     CompletableFuture<@Nullable Void> applyNodes(MqttBrokerConnection connection, ScheduledExecutorService scheduler,
             int timeout) {
-        return nodes.apply(attributes.nodes, node -> node.subscribe(connection, scheduler, timeout), this::createNode,
-                this::notifyNodeRemoved).exceptionally(e -> {
+        return nodes.apply(attributes.nodes, node -> {
+            // Nodes are served by the same router as the device, if any
+            node.attributes.setTopicRouter(attributes.getTopicRouter());
+            return node.subscribe(connection, scheduler, timeout);
+        }, this::createNode, this::notifyNodeRemoved).exceptionally(e -> {
                     logger.warn("Could not subscribe", e);
                     return null;
                 });
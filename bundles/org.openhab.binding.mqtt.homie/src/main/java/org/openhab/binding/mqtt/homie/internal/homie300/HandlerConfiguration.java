@@ -36,4 +36,8 @@ public class HandlerConfiguration {
      * Indicates if retained topics should be removed when the Thing is deleted.
      */
     public boolean removetopics = false;
+    /**
+     * Use one wildcard subscription for the whole device tree instead of one subscription per attribute.
+     */
+    public boolean pipelined = false;
 }
@@ -37,4 +37,12 @@ public interface Homekit {
      * @param allow boolean indicating whether or not to allow unauthenticated requests
      */
     void allowUnauthenticatedRequests(boolean allow);
+
+    /**
+     * Returns how many characteristic change notifications have been sent to HomeKit clients and how many item state
+     * changes have been coalesced into already pending notifications.
+     *
+     * @return a human readable summary
+     */
+    String getNotificationStatistics();
 }
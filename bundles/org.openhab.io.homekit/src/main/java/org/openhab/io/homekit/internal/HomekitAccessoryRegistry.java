@@ -12,14 +12,18 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.items.Item;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +34,9 @@ import io.github.hapjava.HomekitRoot;
  * Stores the created HomekitAccessories. GroupedAccessories are also held here
  * in a pre-created pending state until all required characteristics are found.
  *
+ * For every accessory the item instances it has been created from are remembered. An accessory whose items are
+ * still the same instances does not need to be re-created.
+ *
  * @author Andy Lintner - Initial contribution
  */
 class HomekitAccessoryRegistry {
@@ -37,12 +44,14 @@ class HomekitAccessoryRegistry {
     private @Nullable HomekitRoot bridge;
     private final Map<String, HomekitAccessory> createdAccessories = new HashMap<>();
     private final Set<Integer> createdIds = new HashSet<>();
+    private final Map<String, List<Item>> accessoryItems = new HashMap<>();
 
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryRegistry.class);
 
     public synchronized void remove(String itemName) {
         if (createdAccessories.containsKey(itemName)) {
             HomekitAccessory accessory = createdAccessories.remove(itemName);
+            accessoryItems.remove(itemName);
             logger.debug("Removed accessory {} for taggedItem {}", accessory.getId(), itemName);
             if (bridge != null) {
                 bridge.removeAccessory(accessory);
@@ -64,6 +73,7 @@ class HomekitAccessoryRegistry {
             iter.remove();
         }
         createdIds.clear();
+        accessoryItems.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
@@ -79,8 +89,44 @@ class HomekitAccessoryRegistry {
         bridge = null;
     }
 
-    public synchronized void addRootAccessory(String itemName, HomekitAccessory accessory) {
+    /**
+     * Returns true if an accessory for the given item exists and has been created from exactly the given item
+     * instances.
+     *
+     * @param itemName The root item name
+     * @param items The root item and its accessory group members
+     */
+    public synchronized boolean isUpToDate(String itemName, List<Item> items) {
+        List<Item> existing = accessoryItems.get(itemName);
+        if (existing == null || existing.size() != items.size() || !createdAccessories.containsKey(itemName)) {
+            return false;
+        }
+        for (int i = 0; i < items.size(); ++i) {
+            if (existing.get(i) != items.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes and adds accessories in one go.
+     *
+     * @param removed Root item names of accessories to remove
+     * @param added New accessories by root item name. Existing accessories of the same name are replaced.
+     * @param items The item instances each new accessory has been created from
+     */
+    public synchronized void applyChanges(Collection<String> removed, Map<String, HomekitAccessory> added,
+            Map<String, List<Item>> items) {
+        removed.forEach(this::remove);
+        added.keySet().forEach(this::remove);
+        added.forEach((itemName, accessory) -> addRootAccessory(itemName, accessory,
+                items.getOrDefault(itemName, Collections.emptyList())));
+    }
+
+    private void addRootAccessory(String itemName, HomekitAccessory accessory, List<Item> items) {
         createdAccessories.put(itemName, accessory);
+        accessoryItems.put(itemName, items);
         createdIds.add(accessory.getId());
         if (bridge != null) {
             bridge.addAccessory(accessory);
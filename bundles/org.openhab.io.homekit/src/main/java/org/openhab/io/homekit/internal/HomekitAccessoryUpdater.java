@@ -12,9 +12,18 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.StateChangeListener;
@@ -30,11 +39,60 @@ import io.github.hapjava.HomekitCharacteristicChangeCallback;
  * Homekit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * Item state changes are not passed to Homekit on the item event thread. They are collected per accessory for
+ * {@link #setNotificationDelay(int)} milliseconds and the changed characteristics of an accessory are then notified
+ * together. Multiple changes of the same characteristic within that time result in a single notification.
+ * Use {@link #forAccessory(int)} to get an updater that batches per accessory.
+ *
  * @author Andy Lintner - Initial contribution
  */
 public class HomekitAccessoryUpdater {
+    /** Default time in milliseconds that characteristic changes of an accessory are collected */
+    public static final int DEFAULT_NOTIFICATION_DELAY = 100;
+    private static final int NO_ACCESSORY = -1;
+
     private Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
-    private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName;
+    private final NotificationPipeline pipeline;
+    private final int accessoryId;
+
+    public HomekitAccessoryUpdater() {
+        this(ThreadPoolManager.getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON),
+                DEFAULT_NOTIFICATION_DELAY);
+    }
+
+    public HomekitAccessoryUpdater(ScheduledExecutorService scheduler, int notificationDelay) {
+        this.subscriptionsByName = new ConcurrentHashMap<>();
+        this.pipeline = new NotificationPipeline(scheduler, notificationDelay);
+        this.accessoryId = NO_ACCESSORY;
+    }
+
+    private HomekitAccessoryUpdater(HomekitAccessoryUpdater parent, int accessoryId) {
+        this.subscriptionsByName = parent.subscriptionsByName;
+        this.pipeline = parent.pipeline;
+        this.accessoryId = accessoryId;
+    }
+
+    /**
+     * Returns an updater that shares the subscriptions of this updater, but batches the notifications of all its
+     * subscriptions as belonging to the given accessory.
+     *
+     * @param accessoryId The homekit accessory id
+     * @return An accessory bound updater
+     */
+    public HomekitAccessoryUpdater forAccessory(int accessoryId) {
+        return new HomekitAccessoryUpdater(this, accessoryId);
+    }
+
+    /**
+     * Sets the time in milliseconds that characteristic changes of an accessory are collected before they are notified.
+     *
+     * @param notificationDelay Delay in milliseconds. 0 notifies as soon as possible, but still not on the item event
+     *            thread.
+     */
+    public void setNotificationDelay(int notificationDelay) {
+        pipeline.delay = Math.max(0, notificationDelay);
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -53,10 +111,13 @@ public class HomekitAccessoryUpdater {
         subscriptionsByName.compute(itemKey, (k, v) -> {
             if (v != null) {
                 logger.debug("Received duplicate subscription for {} / {}", item, key);
-                unsubscribe(item, key);
+                item.removeStateChangeListener(v);
+                v.active = false;
             }
             logger.debug("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            // Without an accessory the subscription is batched on its own
+            Object batchKey = accessoryId != NO_ACCESSORY ? Integer.valueOf(accessoryId) : itemKey;
+            Subscription subscription = new Subscription(pipeline, batchKey, callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -73,22 +134,118 @@ public class HomekitAccessoryUpdater {
         subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
             logger.debug("Removing existing subscription for {} / {}", item, key);
             item.removeStateChangeListener(v);
+            v.active = false;
             return null;
         });
     }
 
-    @FunctionalInterface
-    private static interface Subscription extends StateChangeListener {
+    /**
+     * @return Number of characteristic notifications passed to Homekit
+     */
+    public long getSentNotifications() {
+        return pipeline.sent.get();
+    }
+
+    /**
+     * @return Number of item state changes that did not result in an additional notification, because the
+     *         characteristic was already about to be notified
+     */
+    public long getSuppressedNotifications() {
+        return pipeline.suppressed.get();
+    }
+
+    /**
+     * @return Number of notification batches, each containing the changed characteristics of one accessory
+     */
+    public long getNotificationBatches() {
+        return pipeline.batches.get();
+    }
+
+    private static class Subscription implements StateChangeListener {
+        private final NotificationPipeline pipeline;
+        private final Object batchKey;
+        private final HomekitCharacteristicChangeCallback callback;
+        private volatile boolean active = true;
+
+        Subscription(NotificationPipeline pipeline, Object batchKey, HomekitCharacteristicChangeCallback callback) {
+            this.pipeline = pipeline;
+            this.batchKey = batchKey;
+            this.callback = callback;
+        }
 
         @Override
-        void stateChanged(Item item, State oldState, State newState);
+        public void stateChanged(Item item, State oldState, State newState) {
+            pipeline.changed(this);
+        }
 
         @Override
-        default void stateUpdated(Item item, State state) {
+        public void stateUpdated(Item item, State state) {
             // Do nothing on non-change update
         }
     }
 
+    /**
+     * Collects changed subscriptions per accessory and notifies them on the scheduler.
+     */
+    private static class NotificationPipeline {
+        private final Logger logger = LoggerFactory.getLogger(NotificationPipeline.class);
+        private final ScheduledExecutorService scheduler;
+        private volatile int delay;
+        private final Map<Object, Set<Subscription>> pending = new HashMap<>();
+
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong suppressed = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+
+        NotificationPipeline(ScheduledExecutorService scheduler, int delay) {
+            this.scheduler = scheduler;
+            this.delay = delay;
+        }
+
+        void changed(Subscription subscription) {
+            synchronized (pending) {
+                Set<Subscription> batch = pending.get(subscription.batchKey);
+                if (batch != null) {
+                    if (!batch.add(subscription)) {
+                        suppressed.incrementAndGet();
+                    }
+                    return;
+                }
+                batch = new LinkedHashSet<>();
+                batch.add(subscription);
+                pending.put(subscription.batchKey, batch);
+            }
+            try {
+                scheduler.schedule(() -> notify(subscription.batchKey), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Could not schedule homekit notification, notify immediately");
+                notify(subscription.batchKey);
+            }
+        }
+
+        private void notify(Object batchKey) {
+            Set<Subscription> batch;
+            synchronized (pending) {
+                batch = pending.remove(batchKey);
+            }
+            if (batch == null) {
+                return;
+            }
+            batches.incrementAndGet();
+            for (Subscription subscription : batch) {
+                if (!subscription.active) {
+                    continue;
+                }
+                try {
+                    subscription.callback.changed();
+                    sent.incrementAndGet();
+                } catch (RuntimeException e) {
+                    logger.warn("Homekit notification failed: {}", e.getMessage(), e);
+                }
+            }
+        }
+    }
+
     private static class ItemKey {
         public GenericItem item;
         public String key;
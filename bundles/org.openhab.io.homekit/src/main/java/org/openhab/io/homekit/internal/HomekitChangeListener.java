@@ -14,14 +14,21 @@ package org.openhab.io.homekit.internal;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.ItemRegistry;
@@ -31,6 +38,7 @@ import org.openhab.io.homekit.internal.accessories.IncompleteAccessoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.github.hapjava.HomekitAccessory;
 import io.github.hapjava.HomekitRoot;
 
 /**
@@ -47,6 +55,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private HomekitSettings settings;
 
     private Set<String> pendingUpdates = new HashSet<String>();
+    /** Only one batch of updates is applied at a time. Item registry events are not blocked by this. */
+    private final Object applyUpdatesLock = new Object();
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
@@ -64,14 +74,17 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     HomekitChangeListener(ItemRegistry itemRegistry, HomekitSettings settings) {
         this.itemRegistry = itemRegistry;
         this.settings = settings;
+        this.updater.setNotificationDelay(settings.notificationDelay);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
 
         itemRegistry.addRegistryChangeListener(this);
-        itemRegistry.getAll().stream().map(item -> new HomekitTaggedItem(item, itemRegistry))
-                .filter(taggedItem -> taggedItem.isAccessory())
-                .filter(taggedItem -> !taggedItem.isMemberOfAccessoryGroup())
-                .forEach(rootTaggedItem -> createRootAccessory(rootTaggedItem));
+        synchronized (applyUpdatesLock) {
+            applyChanges(itemRegistry.getAll().stream().map(item -> new HomekitTaggedItem(item, itemRegistry))
+                    .filter(taggedItem -> taggedItem.isAccessory())
+                    .filter(taggedItem -> !taggedItem.isMemberOfAccessoryGroup())
+                    .collect(Collectors.toList()), new HashSet<>(), 0);
+        }
     }
 
     @Override
@@ -116,17 +129,76 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         }
     }
 
-    private synchronized void applyUpdates() {
-        Iterator<String> iter = pendingUpdates.iterator();
+    /**
+     * Applies all pending updates as one batch. Accessories that are still made of the same item instances are kept,
+     * all others are removed or created again.
+     */
+    private void applyUpdates() {
+        synchronized (applyUpdatesLock) {
+            Set<String> updates;
+            synchronized (this) {
+                updates = pendingUpdates;
+                pendingUpdates = new HashSet<>();
+            }
 
-        while (iter.hasNext()) {
-            String name = iter.next();
-            accessoryRegistry.remove(name);
+            List<HomekitTaggedItem> changedRootItems = new ArrayList<>();
+            Set<String> removed = new HashSet<>();
+            int unchanged = 0;
+            for (String name : updates) {
+                Optional<HomekitTaggedItem> rootItem = getItemOptional(name)
+                        .map(i -> new HomekitTaggedItem(i, itemRegistry))
+                        .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup());
+                if (!rootItem.isPresent()) {
+                    removed.add(name);
+                } else if (accessoryRegistry.isUpToDate(name, getAccessoryItems(rootItem.get()))) {
+                    unchanged++;
+                } else {
+                    changedRootItems.add(rootItem.get());
+                }
+            }
+            applyChanges(changedRootItems, removed, unchanged);
+        }
+    }
 
-            getItemOptional(name).map(i -> new HomekitTaggedItem(i, itemRegistry))
-                    .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup())
-                    .ifPresent(rootItem -> createRootAccessory(rootItem));
+    /**
+     * Creates the accessories of the given root items in parallel and replaces or removes accessories in a single
+     * step.
+     */
+    private void applyChanges(List<HomekitTaggedItem> rootItems, Set<String> removed, int unchanged) {
+        long start = System.nanoTime();
+        Set<String> removedNames = ConcurrentHashMap.newKeySet();
+        removedNames.addAll(removed);
+        Map<String, HomekitAccessory> created = new ConcurrentHashMap<>();
+        Map<String, List<Item>> createdFrom = new ConcurrentHashMap<>();
+        rootItems.parallelStream().forEach(rootItem -> {
+            HomekitAccessory accessory = createRootAccessory(rootItem);
+            if (accessory != null) {
+                created.put(rootItem.getName(), accessory);
+                createdFrom.put(rootItem.getName(), getAccessoryItems(rootItem));
+            } else {
+                // An accessory that cannot be created anymore must not stay in the bridge
+                removedNames.add(rootItem.getName());
+            }
+        });
+        if (created.isEmpty() && removedNames.isEmpty()) {
+            return;
+        }
+        accessoryRegistry.applyChanges(removedNames, created, createdFrom);
+        logger.debug("Applied homekit accessory changes in {} ms: {} created, {} removed, {} unchanged",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), created.size(), removedNames.size(), unchanged);
+    }
+
+    /**
+     * Returns the root item and, for accessory groups, its members. An accessory has to be created again if any of
+     * those item instances changed.
+     */
+    private static List<Item> getAccessoryItems(HomekitTaggedItem rootItem) {
+        List<Item> items = new ArrayList<>();
+        items.add(rootItem.getItem());
+        if (rootItem.getItem() instanceof GroupItem) {
+            items.addAll(((GroupItem) rootItem.getItem()).getMembers());
         }
+        return items;
     }
 
     @Override
@@ -149,29 +221,34 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
         this.updater = updater;
+        updater.setNotificationDelay(settings.notificationDelay);
+    }
+
+    public HomekitAccessoryUpdater getUpdater() {
+        return updater;
     }
 
     public void updateSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setNotificationDelay(settings.notificationDelay);
     }
 
     public void stop() {
         this.itemRegistry.removeRegistryChangeListener(this);
     }
 
-    private void createRootAccessory(HomekitTaggedItem taggedItem) {
+    private @Nullable HomekitAccessory createRootAccessory(HomekitTaggedItem taggedItem) {
         try {
             if (taggedItem.isMemberOfAccessoryGroup()) {
                 logger.warn("Bug! Cannot add {} as a root accessory if it is a member of a group! ",
                         taggedItem.getItem().getUID());
-                return;
+                return null;
             }
             logger.debug("Adding homekit device {}", taggedItem.getItem().getUID());
-            accessoryRegistry.addRootAccessory(taggedItem.getName(),
-                    HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings));
-            logger.debug("Added homekit device {}", taggedItem.getItem().getUID());
+            return HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings);
         } catch (HomekitException | IncompleteAccessoryException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
+            return null;
         }
     }
 }
@@ -166,4 +166,11 @@ public class HomekitImpl implements Homekit {
             bridge.allowUnauthenticatedRequests(allow);
         }
     }
+
+    @Override
+    public String getNotificationStatistics() {
+        HomekitAccessoryUpdater updater = changeListener.getUpdater();
+        return String.format("%d notifications sent in %d batches, %d suppressed", updater.getSentNotifications(),
+                updater.getNotificationBatches(), updater.getSuppressedNotifications());
+    }
 }
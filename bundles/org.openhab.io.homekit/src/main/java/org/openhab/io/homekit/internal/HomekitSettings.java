@@ -35,6 +35,7 @@ public class HomekitSettings {
     public String thermostatCurrentModeCooling = "Cooling";
     public String thermostatCurrentModeOff = "Off";
     public String networkInterface;
+    public int notificationDelay = 100;
 
     @Deprecated
     public String thermostatHeatMode;
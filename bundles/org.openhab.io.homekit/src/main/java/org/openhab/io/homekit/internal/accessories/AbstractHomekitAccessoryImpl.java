@@ -46,7 +46,7 @@ abstract class AbstractHomekitAccessoryImpl<T extends GenericItem> implements Ho
         this.itemName = taggedItem.getItem().getName();
         this.itemLabel = taggedItem.getItem().getLabel();
         this.itemRegistry = itemRegistry;
-        this.updater = updater;
+        this.updater = updater.forAccessory(accessoryId);
         Item baseItem = taggedItem.getItem();
         if (baseItem instanceof GroupItem && ((GroupItem) baseItem).getBaseItem() != null) {
             baseItem = ((GroupItem) baseItem).getBaseItem();
@@ -310,6 +310,10 @@ public class ConfigStore {
         return config;
     }
 
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
     public int getHighestAssignedHueID() {
         return highestAssignedHueID;
     }
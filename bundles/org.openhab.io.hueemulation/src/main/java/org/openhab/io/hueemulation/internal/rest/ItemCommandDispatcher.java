@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal.rest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.events.EventPublisher;
+import org.eclipse.smarthome.core.items.events.ItemEventFactory;
+import org.eclipse.smarthome.core.types.Command;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Posts item commands asynchronously, so that a hue REST request can be answered immediately, like a real
+ * hue bridge does.
+ *
+ * <p>
+ * Hue clients send a lot of state changes while a user drags a brightness or color slider. A command is therefore
+ * not posted right away, but after a short window. If another command for the same item arrives within that
+ * window, it replaces the pending one (last command wins) and only the latest command is posted.
+ * </p>
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ItemCommandDispatcher {
+    /** The real hue bridge accepts about 10 commands per second and light */
+    public static final int DEFAULT_COALESCE_WINDOW_MS = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(ItemCommandDispatcher.class);
+    private final ScheduledExecutorService scheduler;
+    private final Supplier<@Nullable EventPublisher> eventPublisher;
+    private final int coalesceWindow;
+
+    private final Map<String, Command> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong sentCommands = new AtomicLong();
+    private final AtomicLong coalescedCommands = new AtomicLong();
+    private final AtomicLong droppedCommands = new AtomicLong();
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param scheduler The scheduler to post commands with
+     * @param eventPublisher Returns the current event publisher. May return null if there is none.
+     * @param coalesceWindow The time in milliseconds a command is held back to be replaced by a newer one
+     */
+    public ItemCommandDispatcher(ScheduledExecutorService scheduler, Supplier<@Nullable EventPublisher> eventPublisher,
+            int coalesceWindow) {
+        this.scheduler = scheduler;
+        this.eventPublisher = eventPublisher;
+        this.coalesceWindow = coalesceWindow;
+    }
+
+    /**
+     * Sends a command to an item. If there is a pending command for the same item, that command is replaced.
+     *
+     * @param itemUID The item UID
+     * @param command The command
+     */
+    public void send(String itemUID, Command command) {
+        if (pending.put(itemUID, command) != null) {
+            // The already scheduled task will post the new command
+            coalescedCommands.incrementAndGet();
+            return;
+        }
+        try {
+            scheduler.schedule(() -> post(itemUID), coalesceWindow, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pending.remove(itemUID);
+            droppedCommands.incrementAndGet();
+            logger.warn("Cannot schedule command for item '{}'", itemUID, e);
+        }
+    }
+
+    private void post(String itemUID) {
+        Command command = pending.remove(itemUID);
+        if (command == null) {
+            return;
+        }
+        EventPublisher localEventPublisher = eventPublisher.get();
+        if (localEventPublisher == null) {
+            droppedCommands.incrementAndGet();
+            logger.warn("No event publisher. Cannot post item '{}' command!", itemUID);
+            return;
+        }
+        logger.debug("sending {} to {}", command, itemUID);
+        localEventPublisher.post(ItemEventFactory.createCommandEvent(itemUID, command, "hueemulation"));
+        sentCommands.incrementAndGet();
+    }
+
+    /**
+     * @return Number of commands waiting to be posted
+     */
+    public int getPendingCommands() {
+        return pending.size();
+    }
+
+    /**
+     * @return Number of commands posted to the framework
+     */
+    public long getSentCommands() {
+        return sentCommands.get();
+    }
+
+    /**
+     * @return Number of commands that got replaced by a newer command for the same item
+     */
+    public long getCoalescedCommands() {
+        return coalescedCommands.get();
+    }
+
+    /**
+     * @return Number of commands that could not be posted, because there was no event publisher or no scheduler
+     */
+    public long getDroppedCommands() {
+        return droppedCommands.get();
+    }
+}
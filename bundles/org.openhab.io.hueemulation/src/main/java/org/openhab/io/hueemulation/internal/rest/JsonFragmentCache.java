@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.ws.rs.core.EntityTag;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+
+/**
+ * Keeps the serialized JSON of each entry of a hue data store map (lights, groups), so that a full
+ * "GET /api/{user}/lights" response can be assembled from already serialized fragments.
+ *
+ * <p>
+ * Each entry has a version, given as an array of objects, for example the entry itself, its item and
+ * the current item state. An entry is serialized again only if one of those objects is not the identical object
+ * anymore. Item states are immutable, a state change of an item therefore always results in a new version.
+ * </p>
+ *
+ * <p>
+ * The assembled response and its {@link EntityTag} are kept as well and only rebuilt if an entry changed, was added
+ * or was removed. Clients that poll constantly can send the tag with "If-None-Match" and get a
+ * "304 Not Modified" without a body.
+ * </p>
+ *
+ * @author agent - Initial contribution
+ * @param <V> The entry type
+ */
+@NonNullByDefault
+public class JsonFragmentCache<V> {
+    private final Gson gson;
+    private final Function<V, @Nullable Object[]> versionOf;
+
+    private final Map<String, Fragment> fragments = new HashMap<>();
+    private List<Fragment> assembled = Collections.emptyList();
+    private CachedJson all = new CachedJson("{}");
+    private long serializations = 0;
+
+    private static class Fragment {
+        final @Nullable Object[] version;
+        final String json;
+        final String member;
+
+        Fragment(@Nullable Object[] version, String json, String member) {
+            this.version = version;
+            this.json = json;
+            this.member = member;
+        }
+
+        boolean isVersion(@Nullable Object[] other) {
+            if (version.length != other.length) {
+                return false;
+            }
+            for (int i = 0; i < version.length; ++i) {
+                if (version[i] != other[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A serialized JSON document and its entity tag
+     */
+    public static class CachedJson {
+        public final String body;
+        public final EntityTag etag;
+
+        CachedJson(String body) {
+            this.body = body;
+            this.etag = new EntityTag(Integer.toHexString(body.hashCode()) + "-" + Integer.toHexString(body.length()));
+        }
+    }
+
+    /**
+     * Creates a fragment cache.
+     *
+     * @param gson The gson instance to serialize entries with
+     * @param versionOf Returns the objects an entry's JSON depends on. Compared by identity.
+     */
+    public JsonFragmentCache(Gson gson, Function<V, @Nullable Object[]> versionOf) {
+        this.gson = gson;
+        this.versionOf = versionOf;
+    }
+
+    private Fragment fragment(String id, V value) {
+        final @Nullable Object[] version = versionOf.apply(value);
+        Fragment fragment = fragments.get(id);
+        if (fragment != null && fragment.isVersion(version)) {
+            return fragment;
+        }
+        final String json = gson.toJson(value);
+        ++serializations;
+        fragment = new Fragment(version, json, gson.toJson(id) + ":" + json);
+        fragments.put(id, fragment);
+        return fragment;
+    }
+
+    /**
+     * Returns the JSON of a single entry.
+     *
+     * @param id The entry id
+     * @param value The entry or null
+     * @return The serialized entry or "null"
+     */
+    public synchronized String get(String id, @Nullable V value) {
+        if (value == null) {
+            return "null";
+        }
+        return fragment(id, value).json;
+    }
+
+    /**
+     * Returns the JSON object of all entries of the given map, in the iteration order of the map.
+     *
+     * @param map The data store map
+     * @return The serialized map and its entity tag
+     */
+    public synchronized CachedJson getAll(Map<String, V> map) {
+        final List<Fragment> used = new ArrayList<>(map.size());
+        boolean changed = map.size() != assembled.size();
+        for (Map.Entry<String, V> entry : map.entrySet()) {
+            final Fragment fragment = fragment(entry.getKey(), entry.getValue());
+            // A fragment belongs to exactly one id. The same fragments in the same order means same ids and content
+            if (!changed && assembled.get(used.size()) != fragment) {
+                changed = true;
+            }
+            used.add(fragment);
+        }
+        if (changed) {
+            fragments.keySet().retainAll(map.keySet());
+            final StringBuilder body = new StringBuilder(all.body.length() + 64);
+            body.append('{');
+            for (int i = 0; i < used.size(); ++i) {
+                if (i > 0) {
+                    body.append(',');
+                }
+                body.append(used.get(i).member);
+            }
+            body.append('}');
+            assembled = used;
+            all = new CachedJson(body.toString());
+        }
+        return all;
+    }
+
+    /**
+     * Forget all serialized entries, for example because something changed that is not part of the entry versions.
+     */
+    public synchronized void invalidate() {
+        fragments.clear();
+    }
+
+    /**
+     * @return The number of entries serialized so far
+     */
+    public synchronized long getSerializations() {
+        return serializations;
+    }
+}
@@ -27,7 +27,9 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -38,7 +40,6 @@ import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
-import org.eclipse.smarthome.core.items.events.ItemEventFactory;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.io.hueemulation.internal.ConfigStore;
@@ -51,6 +52,7 @@ import org.openhab.io.hueemulation.internal.dto.HueNewLights;
 import org.openhab.io.hueemulation.internal.dto.changerequest.HueChangeRequest;
 import org.openhab.io.hueemulation.internal.dto.changerequest.HueStateChange;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponse;
+import org.openhab.io.hueemulation.internal.rest.JsonFragmentCache.CachedJson;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -113,6 +115,19 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL)
     protected volatile @Nullable EventPublisher eventPublisher;
 
+    // Serialized lights and groups. Hue clients like Alexa or Harmony hubs poll those constantly.
+    protected @NonNullByDefault({}) JsonFragmentCache<HueLightEntry> lightsJson;
+    protected @NonNullByDefault({}) JsonFragmentCache<HueGroupEntry> groupsJson;
+    // Item commands are posted asynchronously and coalesced per item
+    protected @NonNullByDefault({}) ItemCommandDispatcher commands;
+
+    /**
+     * @return The dispatcher that posts item commands of hue clients
+     */
+    public ItemCommandDispatcher getCommandDispatcher() {
+        return commands;
+    }
+
     /**
      * Registers to the {@link ItemRegistry} and enumerates currently existing items.
      */
@@ -120,6 +135,17 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     protected void activate() {
         cs.ds.resetGroupsAndLights();
 
+        // A light is serialized again if the entry, the item, the item state or the label changed.
+        lightsJson = new JsonFragmentCache<>(cs.gson,
+                light -> new Object[] { light, light.item, light.item.getState(), light.item.getLabel() });
+        // Group members are not versioned, the groups are invalidated on every item registry change instead.
+        // The lights list is not part of the version either, the serializer computes it from the members.
+        groupsJson = new JsonFragmentCache<>(cs.gson, group -> new Object[] { group, group.groupItem, group.action,
+                group.name, group.type, group.roomclass });
+
+        commands = new ItemCommandDispatcher(cs.getScheduler(), () -> eventPublisher,
+                ItemCommandDispatcher.DEFAULT_COALESCE_WINDOW_MS);
+
         itemRegistry.removeRegistryChangeListener(this);
         itemRegistry.addRegistryChangeListener(this);
 
@@ -138,6 +164,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
 
     @Override
     public synchronized void added(Item newElement) {
+        groupsJson.invalidate();
         if (!(newElement instanceof GenericItem)) {
             return;
         }
@@ -192,6 +219,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
 
     @Override
     public synchronized void removed(Item element) {
+        groupsJson.invalidate();
         String hueID = cs.mapItemUIDtoHueID(element);
         logger.debug("Remove item {}", hueID);
         cs.ds.lights.remove(hueID);
@@ -205,6 +233,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @SuppressWarnings({ "null", "unused" })
     @Override
     public synchronized void updated(Item oldElement, Item newElement) {
+        groupsJson.invalidate();
         if (!(newElement instanceof GenericItem)) {
             return;
         }
@@ -243,12 +272,24 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Path("{username}/lights")
     @ApiOperation(value = "Return all lights")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        return cachedResponse(request, lightsJson.getAll(cs.ds.lights));
+    }
+
+    /**
+     * Returns "304 Not Modified" if the client already knows the given document (If-None-Match header),
+     * otherwise the document together with its entity tag.
+     */
+    private Response cachedResponse(Request request, CachedJson json) {
+        ResponseBuilder notModified = request.evaluatePreconditions(json.etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(json.body).tag(json.etag).build();
     }
 
     @GET
@@ -285,7 +326,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        return Response.ok(lightsJson.get(id, cs.ds.lights.get(id))).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -371,15 +412,9 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         Command command = StateUtils.computeCommandByState(responses, "/lights/" + id + "/state", hueDevice.state,
                 newState);
 
-        // If a command could be created, post it to the framework now
+        // If a command could be created, post it to the framework. The response does not wait for it.
         if (command != null) {
-            EventPublisher localEventPublisher = eventPublisher;
-            if (localEventPublisher != null) {
-                logger.debug("sending {} to {}", command, itemUID);
-                localEventPublisher.post(ItemEventFactory.createCommandEvent(itemUID, command, "hueemulation"));
-            } else {
-                logger.warn("No event publisher. Cannot post item '{}' command!", itemUID);
-            }
+            commands.send(itemUID, command);
         }
 
         return Response.ok(cs.gson.toJson(responses, new TypeToken<List<?>>() {
@@ -416,16 +451,10 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         Command command = StateUtils.computeCommandByState(responses, "/groups/" + id + "/state/", hueDevice.action,
                 state);
 
-        // If a command could be created, post it to the framework now
+        // If a command could be created, post it to the group, which forwards it to its members. The response does
+        // not wait for it.
         if (command != null) {
-            logger.debug("sending {} to {}", command, id);
-            EventPublisher localEventPublisher = eventPublisher;
-            if (localEventPublisher != null) {
-                localEventPublisher
-                        .post(ItemEventFactory.createCommandEvent(groupItem.getUID(), command, "hueemulation"));
-            } else {
-                logger.warn("No event publisher. Cannot post item '{}' command!", groupItem.getUID());
-            }
+            commands.send(groupItem.getUID(), command);
         }
 
         return Response.ok(cs.gson.toJson(responses, new TypeToken<List<?>>() {
@@ -436,12 +465,12 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Path("{username}/groups")
     @ApiOperation(value = "Return all groups")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllGroupsApi(@Context UriInfo uri,
+    public Response getAllGroupsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups)).build();
+        return cachedResponse(request, groupsJson.getAll(cs.ds.groups));
     }
 
     @GET
@@ -454,7 +483,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups.get(id))).build();
+        return Response.ok(groupsJson.get(id, cs.ds.groups.get(id))).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
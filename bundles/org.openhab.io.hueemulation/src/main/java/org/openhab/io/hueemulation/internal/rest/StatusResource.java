@@ -59,6 +59,8 @@ public class StatusResource implements RegistryListener {
     protected @NonNullByDefault({}) ConfigStore cs;
     @Reference
     protected @NonNullByDefault({}) UpnpService upnpService;
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policyOption = ReferencePolicyOption.GREEDY)
+    protected @Nullable LightsAndGroups lightsAndGroups;
 
     private enum upnpStatus {
         service_not_registered,
@@ -136,8 +138,11 @@ public class StatusResource implements RegistryListener {
                 + //
                 "%d published lights (see <a href='%s/api/testuser/lights'>%s/api/testuser/lights</a>)<br>" + //
                 "%d published sensors (see <a href='%s/api/testuser/sensors'>%s/api/testuser/sensors</a>)<br>" + //
+                "%s<br>" + //
                 "<h2>UPnP discovery test</h2>" + //
                 "<p>%s</p>" + //
+                "<p>%d M-SEARCH requests, %d ignored because of too many requests, %d datagrams sent, %d failed</p>"
+                + //
                 "<table style='border:1px solid black'><tr><td>serial no</td><td>name</td></tr>%s</table>" + //
                 "<h2>Reachability test</h2>" + //
                 "<table style='border:1px solid black'><tr><td>URL</td><td>Responds?</td><td>Ours?</td></tr>%s</table>"
@@ -154,6 +159,17 @@ public class StatusResource implements RegistryListener {
                 .map(entry -> TR(TD(entry.address) + TD(toYesNo(entry.reachable)) + TD(toYesNo(entry.isOurs))))
                 .collect(Collectors.joining("\n"));
 
+        LightsAndGroups localLightsAndGroups = lightsAndGroups;
+        String commands;
+        if (localLightsAndGroups != null) {
+            ItemCommandDispatcher dispatcher = localLightsAndGroups.getCommandDispatcher();
+            commands = String.format("%d item commands sent, %d coalesced, %d dropped, %d pending",
+                    dispatcher.getSentCommands(), dispatcher.getCoalescedCommands(),
+                    dispatcher.getDroppedCommands(), dispatcher.getPendingCommands());
+        } else {
+            commands = "Lights and groups service not started!";
+        }
+
         Registry registry = upnpService.getRegistry();
         String upnps;
         if (registry != null) {
@@ -170,8 +186,10 @@ public class StatusResource implements RegistryListener {
 
         return String.format(format, cs.ds.config.linkbutton ? "On" : "Off",
                 cs.getConfig().temporarilyEmulateV1bridge ? "V1" : "V2", url, url, //
-                cs.ds.lights.size(), url, url, cs.ds.sensors.size(), url, url, //
+                cs.ds.lights.size(), url, url, cs.ds.sensors.size(), url, url, commands, //
                 selfTestUpnpFound.name().replace('_', ' '), //
+                localDiscovery.getSearchRequests(), localDiscovery.getRateLimitedSearchRequests(),
+                localDiscovery.getSentDatagrams(), localDiscovery.getFailedDatagrams(), //
                 upnps, reachable, users);
     }
 
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal.upnp;
+
+import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Limits the number of M-SEARCH requests that are answered per source address. Each source has a token bucket of
+ * {@link #burst} tokens that is refilled with {@link #perSecond} tokens per second.
+ * <p>
+ * This class is not thread safe. It is only used by the upnp selector thread.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class SearchRateLimiter {
+    /** Idle sources are forgotten as soon as that many sources are tracked */
+    private static final int MAX_SOURCES = 1024;
+
+    private final int burst;
+    private final int perSecond;
+    private final Map<InetAddress, Bucket> buckets = new HashMap<>();
+
+    private static class Bucket {
+        double tokens;
+        long lastRefill;
+
+        Bucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+    }
+
+    /**
+     * Creates a rate limiter.
+     *
+     * @param burst Requests of a source that are answered at once
+     * @param perSecond Requests of a source that are answered per second on average
+     */
+    SearchRateLimiter(int burst, int perSecond) {
+        this.burst = burst;
+        this.perSecond = perSecond;
+    }
+
+    /**
+     * Takes a token of the given source, if one is available.
+     *
+     * @param source The source address
+     * @param now The current time in milliseconds
+     * @return Return true if the request of that source should be answered.
+     */
+    boolean tryAcquire(InetAddress source, long now) {
+        Bucket bucket = buckets.get(source);
+        if (bucket == null) {
+            if (buckets.size() >= MAX_SOURCES) {
+                prune(now);
+            }
+            bucket = new Bucket(burst, now);
+            buckets.put(source, bucket);
+        } else {
+            long elapsed = Math.max(0, now - bucket.lastRefill);
+            bucket.tokens = Math.min(burst, bucket.tokens + elapsed * perSecond / 1000.0);
+            bucket.lastRefill = now;
+        }
+        if (bucket.tokens < 1) {
+            return false;
+        }
+        bucket.tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Removes all sources with a full bucket. They would start with a full bucket anyway.
+     */
+    private void prune(long now) {
+        long refillTime = 1000L * burst / Math.max(1, perSecond);
+        buckets.values().removeIf(bucket -> now - bucket.lastRefill >= refillTime);
+        if (buckets.size() >= MAX_SOURCES) {
+            buckets.clear();
+        }
+    }
+
+    /**
+     * @return Number of currently tracked sources
+     */
+    int size() {
+        return buckets.size();
+    }
+}
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -82,6 +83,12 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
     static class ClientRecord {
         public @Nullable SocketAddress clientAddress;
         public ByteBuffer buffer = ByteBuffer.allocate(1000);
+        /** The family of the channel. Selects the pre-encoded datagrams to reply with. */
+        public final boolean ipv6;
+
+        ClientRecord(boolean ipv6) {
+            this.ipv6 = ipv6;
+        }
     }
 
     public static final String DISCOVERY_FILE = "/description.xml";
@@ -92,13 +99,30 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
      * Send a keep alive every 2 minutes
      */
     private static final int CACHE_MSECS = 120 * 1000;
+    /**
+     * M-SEARCH requests of a single source address that are answered at once and per second. Clients usually send two
+     * or three requests in a row, but TVs, speakers and phones on busy networks may send a lot more.
+     */
+    static final int SEARCH_BURST = 5;
+    private static final int SEARCH_PER_SECOND = 2;
+    private static final byte[] M_SEARCH = "M-SEARCH".getBytes(StandardCharsets.US_ASCII);
 
     private final Logger logger = LoggerFactory.getLogger(UpnpServer.class);
 
     public final InetAddress MULTI_ADDR_IPV4;
     public final InetAddress MULTI_ADDR_IPV6;
-    private String[] stVersions = { "", "", "" };
-    private String notifyMsg = "";
+    // Pre-encoded datagrams for IPv4 (index 0) and IPv6 (index 1). Rebuilt when the address or port changes.
+    private volatile ByteBuffer[][] searchResponses = { new ByteBuffer[0], new ByteBuffer[0] };
+    private volatile ByteBuffer[] notifyMsgs = { ByteBuffer.allocate(0), ByteBuffer.allocate(0) };
+
+    //// Only used by the upnp thread
+    private final SearchRateLimiter rateLimiter = new SearchRateLimiter(SEARCH_BURST, SEARCH_PER_SECOND);
+
+    //// statistics
+    private final AtomicLong searchRequests = new AtomicLong();
+    private final AtomicLong rateLimitedSearchRequests = new AtomicLong();
+    private final AtomicLong sentDatagrams = new AtomicLong();
+    private final AtomicLong failedDatagrams = new AtomicLong();
 
     //// objects, set within activate()
     protected @NonNullByDefault({}) String xmlDoc;
@@ -201,31 +225,51 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
         final String urlBase = "http://" + r.addressString + ":" + r.port;
         this.baseurl = urlBase + DISCOVERY_FILE;
 
-        final String[] stVersions = { "upnp:rootdevice", "urn:schemas-upnp-org:device:basic:1",
-                "uuid:" + config.config.uuid };
-        for (int i = 0; i < stVersions.length; ++i) {
-            this.stVersions[i] = String.format(
-                    "HTTP/1.1 200 OK\r\n" + "HOST: %s:%d\r\n" + "EXT:\r\n" + "CACHE-CONTROL: max-age=%d\r\n"
-                            + "LOCATION: %s\r\n" + "SERVER: Linux/3.14.0 UPnP/1.0 IpBridge/%s\r\n"
-                            + "hue-bridgeid: %s\r\n" + "ST: %s\r\n" + "USN: uuid:%s\r\n\r\n",
-                    r.getMulticastAddress(), UPNP_PORT, CACHE_MSECS / 1000, baseurl, // host:port,
-                                                                                     // cache,location
-                    cs.ds.config.apiversion, cs.ds.config.bridgeid, // version, bridgeid
-                    stVersions[i], config.config.uuid);
-        }
+        ByteBuffer[][] searchResponses = new ByteBuffer[2][];
+        ByteBuffer[] notifyMsgs = new ByteBuffer[2];
+        InetAddress[] multicastAddresses = { MULTI_ADDR_IPV4, MULTI_ADDR_IPV6 };
+        for (int family = 0; family < multicastAddresses.length; ++family) {
+            String host = toHostString(multicastAddresses[family]);
+            final String[] stVersions = { "upnp:rootdevice", "urn:schemas-upnp-org:device:basic:1",
+                    "uuid:" + config.config.uuid };
+            searchResponses[family] = new ByteBuffer[stVersions.length];
+            for (int i = 0; i < stVersions.length; ++i) {
+                searchResponses[family][i] = encode(String.format(
+                        "HTTP/1.1 200 OK\r\n" + "HOST: %s:%d\r\n" + "EXT:\r\n" + "CACHE-CONTROL: max-age=%d\r\n"
+                                + "LOCATION: %s\r\n" + "SERVER: Linux/3.14.0 UPnP/1.0 IpBridge/%s\r\n"
+                                + "hue-bridgeid: %s\r\n" + "ST: %s\r\n" + "USN: uuid:%s\r\n\r\n",
+                        host, UPNP_PORT, CACHE_MSECS / 1000, baseurl, // host:port, cache,location
+                        cs.ds.config.apiversion, cs.ds.config.bridgeid, // version, bridgeid
+                        stVersions[i], config.config.uuid));
+            }
 
-        this.notifyMsg = String.format(
-                "NOTIFY * HTTP/1.1\r\n" + "HOST: %s:%d\r\n" + "CACHE-CONTROL: max-age=%d\r\n" + "LOCATION: %s\r\n"
-                        + "SERVER: Linux/3.14.0 UPnP/1.0 IpBridge/%s\r\nNTS: ssdp:alive\r\nNT: upnp:rootdevice\r\n"
-                        + "USN: uuid:%s::upnp:rootdevice\r\n" + "hue-bridgeid: %s\r\n\r\n",
-                r.getMulticastAddress(), UPNP_PORT, CACHE_MSECS / 1000, baseurl, // host:port, cache,location
-                cs.ds.config.apiversion, config.config.uuid, cs.ds.config.bridgeid);// version, uuid, bridgeid
+            notifyMsgs[family] = encode(String.format(
+                    "NOTIFY * HTTP/1.1\r\n" + "HOST: %s:%d\r\n" + "CACHE-CONTROL: max-age=%d\r\n" + "LOCATION: %s\r\n"
+                            + "SERVER: Linux/3.14.0 UPnP/1.0 IpBridge/%s\r\nNTS: ssdp:alive\r\nNT: upnp:rootdevice\r\n"
+                            + "USN: uuid:%s::upnp:rootdevice\r\n" + "hue-bridgeid: %s\r\n\r\n",
+                    host, UPNP_PORT, CACHE_MSECS / 1000, baseurl, // host:port, cache,location
+                    cs.ds.config.apiversion, config.config.uuid, cs.ds.config.bridgeid));// version, uuid, bridgeid
+        }
+        this.searchResponses = searchResponses;
+        this.notifyMsgs = notifyMsgs;
 
         xmlDocWithAddress = String.format(xmlDoc, urlBase, r.addressString, cs.ds.config.bridgeid, cs.ds.config.uuid,
                 cs.ds.config.devicename);
 
     }
 
+    private static String toHostString(InetAddress address) {
+        if (address instanceof Inet6Address) {
+            return "[" + address.getHostAddress().split("%")[0] + "]";
+        } else {
+            return address.getHostAddress();
+        }
+    }
+
+    private static ByteBuffer encode(String msg) {
+        return ByteBuffer.wrap(msg.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
     protected @Nullable HueEmulationConfigWithRuntime performAddressTest(
             @Nullable HueEmulationConfigWithRuntime config) {
         if (config == null) {
@@ -373,35 +417,53 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
         if (recAddress == null) { // Did we receive something?
             return;
         }
-        String data = new String(clntRec.buffer.array(), StandardCharsets.UTF_8);
-        if (!data.startsWith("M-SEARCH")) {
+        clntRec.buffer.flip();
+        if (!isSearchRequest(clntRec.buffer)) {
             return;
         }
 
-        try (DatagramSocket sendSocket = new DatagramSocket()) {
-            sendUPNPDatagrams(sendSocket, recAddress.getAddress(), recAddress.getPort());
+        searchRequests.incrementAndGet();
+        if (!rateLimiter.tryAcquire(recAddress.getAddress(), System.nanoTime() / 1000000)) {
+            rateLimitedSearchRequests.incrementAndGet();
+            logger.trace("Ignore M-SEARCH of {}, too many requests", recAddress);
+            return;
         }
+
+        // Reply with the channel that received the request. No socket needs to be opened.
+        sendUPNPDatagrams(channel, searchResponses[clntRec.ipv6 ? 1 : 0], recAddress);
     }
 
-    private void sendUPNPDatagrams(DatagramSocket sendSocket, InetAddress address, int port) {
-        logger.trace("upnp thread send announcement");
-        for (String msg : stVersions) {
-            DatagramPacket response = new DatagramPacket(msg.getBytes(), msg.length(), address, port);
-            try {
-                logger.trace("Sending to {}:{}", address.getHostAddress(), port);
-                sendSocket.send(response);
-            } catch (IOException e) {
-                logger.warn("Could not send UPNP response: {}", e.getMessage());
+    private static boolean isSearchRequest(ByteBuffer buffer) {
+        if (buffer.remaining() < M_SEARCH.length) {
+            return false;
+        }
+        for (int i = 0; i < M_SEARCH.length; ++i) {
+            if (buffer.get(buffer.position() + i) != M_SEARCH[i]) {
+                return false;
             }
         }
+        return true;
+    }
+
+    private void sendUPNPDatagrams(DatagramChannel channel, ByteBuffer[] msgs, SocketAddress target) {
+        logger.trace("upnp thread send announcement");
+        for (ByteBuffer msg : msgs) {
+            sendDatagram(channel, msg, target);
+        }
     }
 
-    private void sendUPNPNotify(DatagramSocket sendSocket, InetAddress address, int port) {
-        DatagramPacket response = new DatagramPacket(notifyMsg.getBytes(), notifyMsg.length(), address, port);
+    private void sendDatagram(DatagramChannel channel, ByteBuffer msg, SocketAddress target) {
         try {
-            logger.trace("Sending to {}:{}", address.getHostAddress(), port);
-            sendSocket.send(response);
+            logger.trace("Sending to {}", target);
+            // The pre-encoded buffers are shared, each send gets its own position
+            if (channel.send(msg.duplicate(), target) == 0) {
+                failedDatagrams.incrementAndGet();
+                logger.debug("Could not send UPNP response to {}: Send buffer full", target);
+            } else {
+                sentDatagrams.incrementAndGet();
+            }
         } catch (IOException e) {
+            failedDatagrams.incrementAndGet();
             logger.warn("Could not send UPNP response: {}", e.getMessage());
         }
     }
@@ -440,19 +502,23 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
                 return;
             }
 
+            InetSocketAddress multicastV4 = new InetSocketAddress(MULTI_ADDR_IPV4, UPNP_PORT);
+            InetSocketAddress multicastV6 = new InetSocketAddress(MULTI_ADDR_IPV6, UPNP_PORT);
+
             if (hasIPv4) {
-                channelV4.configureBlocking(false);
-                channelV4.register(selector, SelectionKey.OP_READ, new ClientRecord());
-                try (DatagramSocket sendSocket = new DatagramSocket(new InetSocketAddress(config.address, 0))) {
-                    sendUPNPDatagrams(sendSocket, MULTI_ADDR_IPV4, UPNP_PORT);
+                // Announce on the interface of the configured address
+                NetworkInterface networkInterface = NetworkInterface.getByInetAddress(config.address);
+                if (networkInterface != null) {
+                    channelV4.setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface);
                 }
+                channelV4.configureBlocking(false);
+                channelV4.register(selector, SelectionKey.OP_READ, new ClientRecord(false));
+                sendUPNPDatagrams(channelV4, searchResponses[0], multicastV4);
             }
             if (hasIPv6) {
                 channelV6.configureBlocking(false);
-                channelV6.register(selector, SelectionKey.OP_READ, new ClientRecord());
-                try (DatagramSocket sendSocket = new DatagramSocket()) {
-                    sendUPNPDatagrams(sendSocket, MULTI_ADDR_IPV6, UPNP_PORT);
-                }
+                channelV6.register(selector, SelectionKey.OP_READ, new ClientRecord(true));
+                sendUPNPDatagrams(channelV6, searchResponses[1], multicastV6);
             }
 
             threadContext.future.complete(threadContext);
@@ -474,14 +540,10 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
                     logger.trace("upnp thread send periodic announcement");
                     time = Instant.now();
                     if (hasIPv4) {
-                        try (DatagramSocket sendSocket = new DatagramSocket(new InetSocketAddress(config.address, 0))) {
-                            sendUPNPNotify(sendSocket, MULTI_ADDR_IPV4, UPNP_PORT);
-                        }
+                        sendDatagram(channelV4, notifyMsgs[0], multicastV4);
                     }
                     if (hasIPv6) {
-                        try (DatagramSocket sendSocket = new DatagramSocket()) {
-                            sendUPNPNotify(sendSocket, MULTI_ADDR_IPV6, UPNP_PORT);
-                        }
+                        sendDatagram(channelV6, notifyMsgs[1], multicastV6);
                     }
                 }
             }
@@ -526,4 +588,32 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
     public boolean upnpAnnouncementThreadRunning() {
         return config.asyncIOselector != null;
     }
+
+    /**
+     * @return Number of received M-SEARCH requests
+     */
+    public long getSearchRequests() {
+        return searchRequests.get();
+    }
+
+    /**
+     * @return Number of M-SEARCH requests that were not answered, because the source sent too many requests
+     */
+    public long getRateLimitedSearchRequests() {
+        return rateLimitedSearchRequests.get();
+    }
+
+    /**
+     * @return Number of sent responses and announcements
+     */
+    public long getSentDatagrams() {
+        return sentDatagrams.get();
+    }
+
+    /**
+     * @return Number of responses and announcements that could not be sent
+     */
+    public long getFailedDatagrams() {
+        return failedDatagrams.get();
+    }
 }
@@ -14,12 +14,18 @@ package org.openhab.io.hueemulation.internal.rest;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,6 +41,7 @@ import org.glassfish.jersey.server.ResourceConfig;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentMatchers;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.dto.HueGroupEntry;
@@ -339,6 +346,128 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void allLightsAreServedFromCache() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        EntityTag etag = response.getEntityTag();
+        String body = response.readEntity(String.class);
+        long serializations = subject.lightsJson.getSerializations();
+
+        // Nothing changed: Same document, no light serialized again
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertThat(response.readEntity(String.class), is(body));
+        assertThat(response.getEntityTag(), is(etag));
+        assertThat(subject.lightsJson.getSerializations(), is(serializations));
+
+        // The client already knows the document
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(304, response.getStatus());
+
+        // A state change only serializes the changed light again
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.getEntityTag(), is(not(etag)));
+        assertThat(response.readEntity(String.class), is(not(body)));
+        assertThat(subject.lightsJson.getSerializations(), is(serializations + 1));
+    }
+
+    @Test
+    public void allGroupsAreServedFromCache() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request().get();
+        assertEquals(200, response.getStatus());
+        EntityTag etag = response.getEntityTag();
+        String body = response.readEntity(String.class);
+        long serializations = subject.groupsJson.getSerializations();
+
+        // Nothing changed: Same document, no group serialized again
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request().get();
+        assertThat(response.readEntity(String.class), is(body));
+        assertThat(response.getEntityTag(), is(etag));
+        assertThat(subject.groupsJson.getSerializations(), is(serializations));
+
+        // The client already knows the document
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(304, response.getStatus());
+        assertThat(subject.groupsJson.getSerializations(), is(serializations));
+
+        // A renamed group is serialized again
+        cs.ds.groups.get("10").name = "renamed";
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.readEntity(String.class), is(not(body)));
+        assertThat(subject.groupsJson.getSerializations(), is(serializations + 1));
+    }
+
+    @Test
+    public void cachedLightsMatchPlainSerialization() {
+        cs.ds.lights.get("2").item.setState(HSBType.BLUE);
+        cs.ds.lights.get("2").item.setLabel("Color lamp");
+
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertThat(response.readEntity(String.class), is(cs.gson.toJson(cs.ds.lights)));
+
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request().get();
+        assertThat(response.readEntity(String.class), is(cs.gson.toJson(cs.ds.groups)));
+    }
+
+    @Test
+    public void groupCommandIsSentToGroup() {
+        GroupItem groupItem = new GroupItem("group");
+        groupItem.addMember(new SwitchItem("member1"));
+        groupItem.addMember(new SwitchItem("member2"));
+        cs.ds.groups.put("11", new HueGroupEntry("group", groupItem, DeviceType.SwitchType));
+
+        String body = "{'on':true}";
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups/11/action").request()
+                .put(Entity.json(body));
+        assertEquals(200, response.getStatus());
+
+        // The framework forwards the command to the members, rules can react on the group command
+        verify(commonSetup.eventPublisher).post(argThat((Event t) -> t.getTopic().contains("/group/")));
+        verify(commonSetup.eventPublisher, never()).post(argThat((Event t) -> t.getTopic().contains("/member1/")));
+        verify(commonSetup.eventPublisher, never()).post(argThat((Event t) -> t.getTopic().contains("/member2/")));
+    }
+
+    @Test
+    public void commandsAreCoalescedPerItem() {
+        List<Runnable> scheduled = new ArrayList<>();
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        when(scheduler.schedule(ArgumentMatchers.any(Runnable.class), anyLong(), ArgumentMatchers.any()))
+                .thenAnswer(answer -> {
+                    scheduled.add(answer.getArgument(0));
+                    return null;
+                });
+        ItemCommandDispatcher dispatcher = new ItemCommandDispatcher(scheduler, () -> commonSetup.eventPublisher, 100);
+
+        dispatcher.send("switch", OnOffType.ON);
+        dispatcher.send("switch", OnOffType.OFF);
+        dispatcher.send("color", HSBType.BLUE);
+        assertThat(scheduled.size(), is(2));
+        assertThat(dispatcher.getPendingCommands(), is(2));
+        assertThat(dispatcher.getCoalescedCommands(), is(1L));
+        verify(commonSetup.eventPublisher, never()).post(ArgumentMatchers.any());
+
+        scheduled.forEach(Runnable::run);
+        verify(commonSetup.eventPublisher).post(argThat((Event t) -> t instanceof ItemCommandEvent
+                && ((ItemCommandEvent) t).getItemName().equals("switch")
+                && ((ItemCommandEvent) t).getItemCommand().equals(OnOffType.OFF)));
+        verify(commonSetup.eventPublisher, times(2)).post(ArgumentMatchers.any());
+        assertThat(dispatcher.getSentCommands(), is(2L));
+        assertThat(dispatcher.getPendingCommands(), is(0));
+
+        // Without an event publisher commands are dropped
+        ItemCommandDispatcher noPublisher = new ItemCommandDispatcher(scheduler, () -> null, 100);
+        noPublisher.send("switch", OnOffType.ON);
+        scheduled.get(scheduled.size() - 1).run();
+        assertThat(noPublisher.getDroppedCommands(), is(1L));
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
@@ -19,6 +19,8 @@ import static org.mockito.Mockito.mock;
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
@@ -140,6 +142,63 @@ public class UpnpTests {
         assertThat(subject.upnpAnnouncementThreadRunning(), is(false));
     }
 
+    @Test
+    public void searchRequestsAreRateLimitedPerSource() throws IOException {
+        SearchRateLimiter limiter = new SearchRateLimiter(3, 2);
+        InetAddress source = InetAddress.getByName("192.168.0.2");
+        InetAddress otherSource = InetAddress.getByName("192.168.0.3");
+
+        for (int i = 0; i < 3; ++i) {
+            assertThat(limiter.tryAcquire(source, 0), is(true));
+        }
+        assertThat(limiter.tryAcquire(source, 100), is(false));
+        assertThat(limiter.tryAcquire(otherSource, 100), is(true));
+        // Two requests per second are answered again
+        assertThat(limiter.tryAcquire(source, 1100), is(true));
+        assertThat(limiter.size(), is(2));
+    }
+
+    @Test
+    public void searchStorm() throws InterruptedException, ExecutionException, TimeoutException, IOException {
+        HueEmulationConfigWithRuntime r = subject.createConfiguration(null);
+        r = subject.performAddressTest(r);
+        subject.applyConfiguration(r);
+        if (r == null) {
+            throw new IllegalStateException();
+        }
+        r.startNow(r).get(5, TimeUnit.SECONDS);
+
+        final int requests = 200;
+        int responses = 0;
+        try (DatagramSocket sendSocket = new DatagramSocket()) {
+            sendSocket.setSoTimeout(700);
+            byte[] bytes = "M-SEARCH * HTTP/1.1\r\nMAN: \"ssdp:discover\"\r\nST: ssdp:all\r\n\r\n".getBytes();
+            for (int i = 0; i < requests; ++i) {
+                sendSocket.send(new DatagramPacket(bytes, bytes.length, subject.MULTI_ADDR_IPV4, UpnpServer.UPNP_PORT));
+            }
+            byte[] buffer = new byte[1000];
+            DatagramPacket p = new DatagramPacket(buffer, buffer.length);
+            try {
+                while (true) {
+                    sendSocket.receive(p);
+                    assertThat(new String(buffer), CoreMatchers.startsWith("HTTP/1.1 200 OK"));
+                    ++responses;
+                }
+            } catch (SocketTimeoutException ignored) {
+            }
+        }
+
+        // Three datagrams per answered request. The storm takes less than a second, so only the burst
+        // and maybe a few refilled requests are answered.
+        assertThat(responses > 0, is(true));
+        assertThat(responses <= 3 * (UpnpServer.SEARCH_BURST + 2), is(true));
+        assertThat(subject.getSearchRequests() > 0, is(true));
+        assertThat(subject.getRateLimitedSearchRequests() > 0, is(true));
+        assertThat(subject.getFailedDatagrams(), is(0L));
+
+        r.dispose();
+    }
+
     @Test
     public void handEventTest() throws InterruptedException, ExecutionException, TimeoutException {
         subject.handleEvent(null);
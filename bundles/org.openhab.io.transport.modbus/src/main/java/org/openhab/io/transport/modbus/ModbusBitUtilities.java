@@ -13,9 +13,6 @@
 package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -101,117 +98,140 @@ public class ModbusBitUtilities {
      */
     public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
-        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
-        // each register has 16 bits
-        int lastValidIndex = registers.size() * 16 - 1;
-        if (endBitIndex > lastValidIndex || index < 0) {
-            throw new IllegalArgumentException(
-                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
-                            registers.size()));
-        }
         switch (type) {
-            case BIT:
-                return Optional
-                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
-            case INT8:
-                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
-            case UINT8:
-                return Optional.of(new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
-            }
-            case UINT16:
-                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
+            case FLOAT32:
             case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
+                float value = (float) extractDoubleFromRegisters(registers, index, type);
+                if (Float.isNaN(value) || Float.isInfinite(value)) {
                     // floating point NaN or infinity encountered
                     return Optional.empty();
                 }
+                return Optional.of(new DecimalType(value));
             }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
+            case UINT64:
+            case UINT64_SWAP: {
+                long value = extractLongFromRegisters(registers, index, type);
+                if (value < 0) {
+                    // value does not fit in a signed long
+                    return Optional.of(new DecimalType(new BigDecimal(Long.toUnsignedString(value))));
+                }
+                return Optional.of(new DecimalType(value));
             }
+            default:
+                return Optional.of(new DecimalType(extractLongFromRegisters(registers, index, type)));
+        }
+    }
+
+    /**
+     * Read data from registers and convert the result to long
+     *
+     * Unlike {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}, no intermediate
+     * buffers or objects are allocated. Interpretation of <tt>index</tt> and <tt>type</tt> is the same.
+     *
+     * UINT64 and UINT64_SWAP values do not necessarily fit in a signed long. The raw 64 bits are returned, use
+     * e.g. {@link Long#toUnsignedString(long)} or {@link Long#compareUnsigned(long, long)} to interpret them.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index. Interpretation of this depends on type, see
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type, e.g. unsigned 16bit integer (<tt>ModbusBindingProvider.ValueType.UINT16</tt>)
+     * @return the queried value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or when <tt>type</tt> is a
+     *             floating point type
+     */
+    public static long extractLongFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        checkRegisterIndex(registers, index, type);
+        switch (type) {
+            case BIT:
+                return (registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1;
+            case INT8:
+                return (byte) (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2)));
+            case UINT8:
+                return (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff;
+            case INT16:
+                return (short) registers.getRegister(index).toUnsignedShort();
+            case UINT16:
+                return registers.getRegister(index).toUnsignedShort();
+            case INT32:
+                return int32(registers, index, index + 1);
+            case UINT32:
+                return int32(registers, index, index + 1) & 0xffffffffL;
+            case INT32_SWAP:
+                return int32(registers, index + 1, index);
+            case UINT32_SWAP:
+                return int32(registers, index + 1, index) & 0xffffffffL;
+            case INT64:
+            case UINT64:
+                return ((long) int32(registers, index, index + 1) << 32)
+                        | (int32(registers, index + 2, index + 3) & 0xffffffffL);
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return ((long) int32(registers, index + 3, index + 2) << 32)
+                        | (int32(registers, index + 1, index) & 0xffffffffL);
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Type=%s cannot be represented as long", type.getConfigValue()));
+        }
+    }
+
+    /**
+     * Read data from registers and convert the result to double
+     *
+     * Unlike {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}, no intermediate
+     * buffers or objects are allocated. Interpretation of <tt>index</tt> and <tt>type</tt> is the same.
+     *
+     * Floating point NaN and infinity are returned as such. 64 bit integers are rounded to the nearest double.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index. Interpretation of this depends on type, see
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type, e.g. 32bit floating point number (<tt>ModbusBindingProvider.ValueType.FLOAT32</tt>)
+     * @return the queried value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static double extractDoubleFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
+                checkRegisterIndex(registers, index, type);
+                return Float.intBitsToFloat(int32(registers, index, index + 1));
+            case FLOAT32_SWAP:
+                checkRegisterIndex(registers, index, type);
+                return Float.intBitsToFloat(int32(registers, index + 1, index));
+            case UINT64:
             case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
+                long value = extractLongFromRegisters(registers, index, type);
+                if (value < 0) {
+                    // unsigned conversion: halve, convert and double again, keeping the lowest bit for rounding
+                    return ((value >>> 1) | (value & 1)) * 2.0;
+                }
+                return value;
             }
             default:
-                throw new IllegalArgumentException(type.getConfigValue());
+                return extractLongFromRegisters(registers, index, type);
         }
     }
 
+    private static void checkRegisterIndex(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
+        // each register has 16 bits
+        int lastValidIndex = registers.size() * 16 - 1;
+        if (endBitIndex > lastValidIndex || index < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
+                            registers.size()));
+        }
+    }
+
+    /**
+     * Combine two registers to 32bit integer, first given register containing the most significant 16 bits
+     */
+    private static int int32(ModbusRegisterArray registers, int highIndex, int lowIndex) {
+        return (registers.getRegister(highIndex).toUnsignedShort() << 16)
+                | registers.getRegister(lowIndex).toUnsignedShort();
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Performance metrics of the operations executed against a single endpoint
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusEndpointMetrics {
+
+    /**
+     * @return endpoint these metrics belong to
+     */
+    public ModbusSlaveEndpoint getEndpoint();
+
+    /**
+     * @return time operations waited in the endpoint queue before execution
+     */
+    public ModbusLatencyHistogram getQueueWait();
+
+    /**
+     * @return time spent borrowing connections from the connection pool
+     */
+    public ModbusLatencyHistogram getBorrow();
+
+    /**
+     * @return time spent in transactions with the slave, per operation (including retries)
+     */
+    public ModbusLatencyHistogram getTransaction();
+
+    /**
+     * @return time spent in callbacks, per operation
+     */
+    public ModbusLatencyHistogram getCallback();
+
+    /**
+     * @return number of operations waiting in the endpoint queue
+     */
+    public int getQueueDepth();
+
+    /**
+     * @return number of operations dropped from the endpoint queue since they waited longer than their deadline
+     */
+    public long getDroppedCount();
+
+    /**
+     * @return number of executed operations
+     */
+    public long getOperationCount();
+
+    /**
+     * @return number of operations which failed after all tries
+     */
+    public long getErrorCount();
+
+    /**
+     * @return number of tries which failed due to a timeout
+     */
+    public long getTimeoutCount();
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Distribution of recorded durations. All durations are in microseconds.
+ *
+ * Recorded values are kept with a bounded relative error (a few percent), independent of their magnitude, similar
+ * to HDR histograms.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusLatencyHistogram {
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount();
+
+    /**
+     * @return sum of all recorded values
+     */
+    public long getSum();
+
+    /**
+     * @return largest recorded value, or 0 if nothing has been recorded
+     */
+    public long getMax();
+
+    /**
+     * @return average of recorded values, or 0 if nothing has been recorded
+     */
+    public double getMean();
+
+    /**
+     * Get value at the given percentile
+     *
+     * @param percentile percentile between 0 and 100
+     * @return the value at the percentile, or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile);
+}
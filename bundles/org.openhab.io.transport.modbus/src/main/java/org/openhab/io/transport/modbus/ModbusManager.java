@@ -12,6 +12,7 @@
  */
 package org.openhab.io.transport.modbus;
 
+import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 
@@ -33,7 +34,8 @@ public interface ModbusManager {
      * background.
      *
      * @param task
-     * @return future representing the polled task
+     * @return future representing the polled task. The future is done once the poll transaction has finished, and
+     *         cancelling it removes the poll from the queue of the endpoint.
      */
     public ScheduledFuture<?> submitOneTimePoll(PollTask task);
 
@@ -60,7 +62,8 @@ public interface ModbusManager {
      * background.
      *
      * @param task
-     * @return future representing the task
+     * @return future representing the task. The future is done once the write transaction has finished, and
+     *         cancelling it removes the write from the queue of the endpoint.
      */
     public ScheduledFuture<?> submitOneTimeWrite(WriteTask task);
 
@@ -104,4 +107,11 @@ public interface ModbusManager {
      */
     public Set<PollTask> getRegisteredRegularPolls();
 
+    /**
+     * Get performance metrics of the endpoints which have been communicated with
+     *
+     * @return metrics, one per endpoint
+     */
+    public Collection<ModbusEndpointMetrics> getEndpointMetrics();
+
 }
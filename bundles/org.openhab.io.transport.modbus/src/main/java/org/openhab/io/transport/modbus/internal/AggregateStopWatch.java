@@ -39,6 +39,11 @@ public class AggregateStopWatch {
      */
     final SimpleStopWatch connection = new SimpleStopWatch();
 
+    /**
+     * Time for borrowing connections from the pool (part of the connection time)
+     */
+    final SimpleStopWatch borrow = new SimpleStopWatch();
+
     /**
      * Time for actual the actual transaction (read/write to slave)
      */
@@ -57,7 +62,7 @@ public class AggregateStopWatch {
      * Suspend all running stopwatches of this aggregate
      */
     public void suspendAllRunning() {
-        for (SimpleStopWatch watch : new SimpleStopWatch[] { total, connection, transaction, callback }) {
+        for (SimpleStopWatch watch : new SimpleStopWatch[] { total, connection, borrow, transaction, callback }) {
             if (watch.isRunning()) {
                 watch.suspend();
             }
@@ -66,7 +71,8 @@ public class AggregateStopWatch {
 
     @Override
     public String toString() {
-        return String.format("{total: %d ms, connection: %d, transaction=%d, callback=%d}", total.getTotalTimeMillis(),
-                connection.getTotalTimeMillis(), transaction.getTotalTimeMillis(), callback.getTotalTimeMillis());
+        return String.format("{total: %d ms, connection: %d, borrow=%d, transaction=%d, callback=%d}",
+                total.getTotalTimeMillis(), connection.getTotalTimeMillis(), borrow.getTotalTimeMillis(),
+                transaction.getTotalTimeMillis(), callback.getTotalTimeMillis());
     }
 }
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Poll task reading the union of the ranges of several poll tasks of the same endpoint, unit id and function code
+ * with a single request.
+ *
+ * The response is sliced back to the ranges of the individual tasks and their callbacks are invoked with the
+ * original requests. Errors are forwarded to all the callbacks. Tasks which got unregistered after the coalesced
+ * task has been queued are skipped.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask {
+
+    static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private class SlicingCallback implements ModbusReadCallback {
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback callback = getCallback(task);
+                if (callback == null) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - request.getReference();
+                if (offset + taskRequest.getDataLength() > registers.size()) {
+                    callback.onError(taskRequest, responseTooShort(registers.size()));
+                } else {
+                    callback.onRegisters(taskRequest,
+                            new RegisterArraySlice(registers, offset, taskRequest.getDataLength()));
+                }
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback callback = getCallback(task);
+                if (callback == null) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - request.getReference();
+                if (offset + taskRequest.getDataLength() > bits.size()) {
+                    callback.onError(taskRequest, responseTooShort(bits.size()));
+                } else {
+                    callback.onBits(taskRequest, new BitArraySlice(bits, offset, taskRequest.getDataLength()));
+                }
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback callback = getCallback(task);
+                if (callback != null) {
+                    callback.onError(task.getRequest(), error);
+                }
+            }
+        }
+
+        private @Nullable ModbusReadCallback getCallback(PollTask task) {
+            return isRegistered.test(task) ? task.getCallback() : null;
+        }
+
+        private Exception responseTooShort(int size) {
+            return new ModbusSlaveIOExceptionImpl(new IOException(String.format(
+                    "Response to coalesced request %s contained only %d elements", request, size)));
+        }
+    }
+
+    private ModbusSlaveEndpoint endpoint;
+    private BasicModbusReadRequestBlueprint request;
+    private List<PollTask> tasks;
+    private Predicate<PollTask> isRegistered;
+    private ModbusReadCallback callback = new SlicingCallback();
+
+    /**
+     * Construct coalesced task
+     *
+     * @param endpoint endpoint of all the tasks
+     * @param request request covering the ranges of all the tasks
+     * @param tasks tasks covered by the request
+     */
+    public CoalescedPollTask(ModbusSlaveEndpoint endpoint, BasicModbusReadRequestBlueprint request,
+            List<PollTask> tasks) {
+        this(endpoint, request, tasks, task -> true);
+    }
+
+    /**
+     * Construct coalesced task skipping the callbacks of unregistered tasks
+     *
+     * @param endpoint endpoint of all the tasks
+     * @param request request covering the ranges of all the tasks
+     * @param tasks tasks covered by the request
+     * @param isRegistered tells whether a task is still registered, checked when the response is sliced
+     */
+    public CoalescedPollTask(ModbusSlaveEndpoint endpoint, BasicModbusReadRequestBlueprint request,
+            List<PollTask> tasks, Predicate<PollTask> isRegistered) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.isRegistered = isRegistered;
+    }
+
+    /**
+     * Get the tasks covered by this task
+     *
+     * @return covered tasks
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public @Nullable ModbusReadCallback getCallback() {
+        return callback;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("tasks", tasks.size()).toString();
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Metrics of a single endpoint. Queue related metrics are read from the {@link EndpointTaskQueue} of the endpoint,
+ * the rest is recorded by {@link ModbusManagerImpl} when operations end.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointMetrics implements ModbusEndpointMetrics {
+
+    private final EndpointTaskQueue queue;
+    private final LatencyHistogram borrow = new LatencyHistogram();
+    private final LatencyHistogram transaction = new LatencyHistogram();
+    private final LatencyHistogram callback = new LatencyHistogram();
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public EndpointMetrics(EndpointTaskQueue queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * Record timings of an ended operation
+     *
+     * @param timer timings of the operation
+     * @param failed whether the operation failed after all tries
+     */
+    public void recordOperation(AggregateStopWatch timer, boolean failed) {
+        operations.increment();
+        if (failed) {
+            errors.increment();
+        }
+        borrow.recordNanos(timer.borrow.getTotalTimeNanos());
+        transaction.recordNanos(timer.transaction.getTotalTimeNanos());
+        callback.recordNanos(timer.callback.getTotalTimeNanos());
+    }
+
+    /**
+     * Record failed try. Tries failing due to a timeout are counted.
+     *
+     * @param error error of the try
+     */
+    public void recordFailedTry(Exception error) {
+        if (isTimeout(error)) {
+            timeouts.increment();
+        }
+    }
+
+    /**
+     * Whether the error, or any of its causes, represents a timeout. The modbus library does not have a dedicated
+     * exception for timeouts, thus messages are inspected as well.
+     */
+    static boolean isTimeout(Exception error) {
+        for (@Nullable Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (message != null) {
+                String lowerCaseMessage = message.toLowerCase(Locale.ROOT);
+                if (lowerCaseMessage.contains("timeout") || lowerCaseMessage.contains("timed out")) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return queue.getEndpoint();
+    }
+
+    @Override
+    public LatencyHistogram getQueueWait() {
+        return queue.getWaitTimes();
+    }
+
+    @Override
+    public LatencyHistogram getBorrow() {
+        return borrow;
+    }
+
+    @Override
+    public LatencyHistogram getTransaction() {
+        return transaction;
+    }
+
+    @Override
+    public LatencyHistogram getCallback() {
+        return callback;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queue.getQueueDepth();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return queue.getDroppedCount();
+    }
+
+    @Override
+    public long getOperationCount() {
+        return operations.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "EndpointMetrics(endpoint=%s, operations=%d, errors=%d, timeouts=%d, queueWait=%s, borrow=%s, transaction=%s, callback=%s)",
+                getEndpoint(), getOperationCount(), getErrorCount(), getTimeoutCount(), getQueueWait(), borrow,
+                transaction, callback);
+    }
+}
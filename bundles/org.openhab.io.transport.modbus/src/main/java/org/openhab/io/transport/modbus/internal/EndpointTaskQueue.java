@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of operations for a single endpoint.
+ *
+ * Operations are executed one at a time on the shared executor, so a slow endpoint occupies at most one thread and
+ * cannot delay operations of other endpoints. After each operation the queue hands the thread back to the executor,
+ * giving the queues of all endpoints a fair share.
+ *
+ * Writes are executed before one-off polls, which are executed before regular polls. Regular polls which have been
+ * waiting longer than their deadline are dropped, the next scheduled execution queues them again.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointTaskQueue {
+
+    /**
+     * Priority of queued operations, in execution order
+     */
+    public enum Priority {
+        WRITE,
+        ONE_OFF_POLL,
+        REGULAR_POLL
+    }
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static class QueuedOperation implements Comparable<QueuedOperation> {
+        private final Runnable operation;
+        private final Priority priority;
+        private final long sequence = SEQUENCE.incrementAndGet();
+        private final long queuedNanos = System.nanoTime();
+        private final long deadlineNanos;
+        private final @Nullable Object key;
+
+        private QueuedOperation(Runnable operation, Priority priority, long deadlineMillis, @Nullable Object key) {
+            this.operation = operation;
+            this.priority = priority;
+            this.deadlineNanos = deadlineMillis > 0 ? queuedNanos + TimeUnit.MILLISECONDS.toNanos(deadlineMillis)
+                    : Long.MAX_VALUE;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(QueuedOperation other) {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Future of a one-time operation. It is done when the operation has been executed, and cancelling it removes the
+     * operation from the queue.
+     */
+    private class OneTimeOperationFuture extends FutureTask<@Nullable Void> implements ScheduledFuture<@Nullable Void> {
+
+        private OneTimeOperationFuture(Runnable operation) {
+            super(operation, null);
+        }
+
+        @Override
+        public long getDelay(@Nullable TimeUnit unit) {
+            return 0;
+        }
+
+        @Override
+        public int compareTo(@Nullable Delayed other) {
+            return other == null ? 1 : Long.compare(0, other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        protected void setException(@Nullable Throwable error) {
+            logger.error("Unexpected error executing operation for endpoint {}", endpoint, error);
+            super.setException(error);
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(EndpointTaskQueue.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final Executor executor;
+    private final PriorityBlockingQueue<QueuedOperation> queue = new PriorityBlockingQueue<>();
+    private final Set<Object> queuedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+    public EndpointTaskQueue(ModbusSlaveEndpoint endpoint, Executor executor) {
+        this.endpoint = endpoint;
+        this.executor = executor;
+    }
+
+    /**
+     * Queue operation for execution
+     *
+     * @param operation operation to execute
+     * @param priority priority of the operation
+     * @param deadlineMillis maximum time the operation may wait in the queue before it is dropped, or 0 to never
+     *            drop the operation
+     * @param key identifies operations which should be queued only once, for example a regularly polled task. If an
+     *            operation with an equal key is already queued, the operation is not queued. Null to always queue.
+     * @return whether the operation was queued
+     */
+    public boolean submit(Runnable operation, Priority priority, long deadlineMillis, @Nullable Object key) {
+        if (key != null && !queuedKeys.add(key)) {
+            skipped.incrementAndGet();
+            logger.trace("Operation {} for endpoint {} is still queued, not queuing it again", key, endpoint);
+            return false;
+        }
+        queue.add(new QueuedOperation(operation, priority, deadlineMillis, key));
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Queue one-time operation for execution. The operation is never dropped.
+     *
+     * @param operation operation to execute
+     * @param priority priority of the operation
+     * @return future which is done once the operation has been executed. Cancelling the future removes the operation
+     *         from the queue, or interrupts it if requested and it is already running.
+     */
+    public ScheduledFuture<?> submitOneTime(Runnable operation, Priority priority) {
+        OneTimeOperationFuture future = new OneTimeOperationFuture(operation);
+        submit(future, priority, 0, future);
+        return future;
+    }
+
+    /**
+     * Remove queued operation with the given key
+     *
+     * @param key key given on {@link #submit(Runnable, Priority, long, Object)}
+     */
+    public void remove(Object key) {
+        if (queuedKeys.remove(key)) {
+            queue.removeIf(queued -> key.equals(queued.key));
+        }
+    }
+
+    /**
+     * Remove all queued operations. Futures of removed one-time operations are cancelled.
+     */
+    public void clear() {
+        List<QueuedOperation> removed = new ArrayList<>();
+        queue.drainTo(removed);
+        queuedKeys.clear();
+        for (QueuedOperation queued : removed) {
+            if (queued.operation instanceof OneTimeOperationFuture) {
+                ((OneTimeOperationFuture) queued.operation).cancel(false);
+            }
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drainOne);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                logger.warn("Could not execute queued operations of endpoint {}: {}", endpoint, e.getMessage());
+            }
+        }
+    }
+
+    private void drainOne() {
+        try {
+            QueuedOperation queued = queue.poll();
+            if (queued == null) {
+                return;
+            }
+            if (queued.key != null) {
+                queuedKeys.remove(queued.key);
+            }
+            long now = System.nanoTime();
+            long waitNanos = now - queued.queuedNanos;
+            if (now > queued.deadlineNanos) {
+                dropped.incrementAndGet();
+                logger.debug("Dropping stale {} operation for endpoint {}, waited {} ms in queue", queued.priority,
+                        endpoint, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+                return;
+            }
+            waitTimes.recordNanos(waitNanos);
+            executed.incrementAndGet();
+            try {
+                queued.operation.run();
+            } catch (RuntimeException e) {
+                logger.error("Unexpected error executing operation for endpoint {}", endpoint, e);
+            }
+        } finally {
+            draining.set(false);
+            // let other endpoints use the thread before continuing with this queue
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * @return endpoint of this queue
+     */
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return number of operations waiting for execution
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return number of executed operations
+     */
+    public long getExecutedCount() {
+        return executed.get();
+    }
+
+    /**
+     * @return number of operations dropped since they have waited longer than their deadline
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return number of operations not queued since an equal operation was already waiting
+     */
+    public long getSkippedCount() {
+        return skipped.get();
+    }
+
+    /**
+     * @return average time executed operations waited in the queue, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        return waitTimes.getMean() / 1000;
+    }
+
+    /**
+     * @return maximum time an executed operation waited in the queue, in milliseconds
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.MICROSECONDS.toMillis(waitTimes.getMax());
+    }
+
+    /**
+     * @return distribution of the times executed operations waited in the queue, in microseconds
+     */
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "EndpointTaskQueue(endpoint=%s, depth=%d, executed=%d, dropped=%d, skipped=%d, avgWait=%.1fms, maxWait=%dms)",
+                endpoint, getQueueDepth(), getExecutedCount(), getDroppedCount(), getSkippedCount(),
+                getAverageWaitMillis(), getMaxWaitMillis());
+    }
+}
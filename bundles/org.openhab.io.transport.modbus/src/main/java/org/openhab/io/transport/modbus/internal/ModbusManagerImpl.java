@@ -13,7 +13,9 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -37,9 +39,11 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusUnexpectedTransactionIdException;
@@ -77,6 +81,9 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * Operations are queued per endpoint (see {@link EndpointTaskQueue}), so that slow endpoints do not block the threads
+ * needed by other endpoints, and writes are executed before polls.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
@@ -249,6 +256,86 @@ public class ModbusManagerImpl implements ModbusManager {
     private static final long WARN_QUEUE_SIZE = 500;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
+    /**
+     * Configuration key for the maximum gap (in registers or bits) between ranges of regular polls which are still
+     * coalesced into one request. Coalescing is disabled if not configured or negative.
+     */
+    public static final String CONFIG_POLL_COALESCING_MAX_GAP = "pollCoalescingMaxGap";
+
+    /**
+     * Regular polls of the same endpoint, unit id, function code and poll period, which are scheduled together and
+     * executed with coalesced requests
+     *
+     * @author agent - Initial contribution
+     */
+    private class PollGroup implements Runnable {
+        private final Set<PollTask> tasks = new CopyOnWriteArraySet<>();
+        private final long pollPeriodMillis;
+        private volatile @Nullable List<PollTask> coalescedTasks;
+        private @Nullable ScheduledFuture<?> future;
+
+        private PollGroup(long pollPeriodMillis) {
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        private void add(PollTask task) {
+            tasks.add(task);
+            coalescedTasks = null;
+        }
+
+        private boolean remove(PollTask task) {
+            tasks.remove(task);
+            coalescedTasks = null;
+            return tasks.isEmpty();
+        }
+
+        @Override
+        public void run() {
+            List<PollTask> coalescedTasks = this.coalescedTasks;
+            if (coalescedTasks == null) {
+                // a coalesced task might still be queued when one of its tasks gets unregistered
+                this.coalescedTasks = coalescedTasks = PollTaskCoalescer.coalesce(tasks, pollCoalescingMaxGap,
+                        scheduledPollTasks::containsKey);
+            }
+            for (PollTask task : coalescedTasks) {
+                logger.debug("Queuing scheduled ({}ms) coalesced poll task {}", pollPeriodMillis, task);
+                submitRegularPoll(task, pollPeriodMillis);
+            }
+        }
+    }
+
+    private static class PollGroupKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final ModbusReadFunctionCode functionCode;
+        private final long pollPeriodMillis;
+
+        private PollGroupKey(PollTask task, long pollPeriodMillis) {
+            this.endpoint = task.getEndpoint();
+            this.unitId = task.getRequest().getUnitID();
+            this.functionCode = task.getRequest().getFunctionCode();
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, unitId, functionCode, pollPeriodMillis);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            PollGroupKey other = (PollGroupKey) obj;
+            return endpoint.equals(other.endpoint) && unitId == other.unitId && functionCode == other.functionCode
+                    && pollPeriodMillis == other.pollPeriodMillis;
+        }
+    }
+
     private final PollOperation pollOperation = new PollOperation();
     private final WriteOperation writeOperation = new WriteOperation();
 
@@ -268,6 +355,17 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    private final Map<PollGroupKey, PollGroup> pollGroups = new ConcurrentHashMap<>();
+    private final Map<PollTask, PollGroupKey> pollGroupKeys = new ConcurrentHashMap<>();
+    /**
+     * Operation queues, one per endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointTaskQueue> endpointQueues = new ConcurrentHashMap<>();
+    /**
+     * Operation metrics, one per endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
+    private volatile int pollCoalescingMaxGap = -1;
     /**
      * Executor for requests
      */
@@ -418,7 +516,8 @@ public class ModbusManagerImpl implements ModbusManager {
         ModbusSlaveEndpoint endpoint = task.getEndpoint();
 
         ModbusRequestBlueprint request = task.getRequest();
-        Optional<ModbusSlaveConnection> connection = timer.connection.timeSupplier(() -> borrowConnection(endpoint));
+        Optional<ModbusSlaveConnection> connection = timer.connection
+                .timeSupplier(() -> timer.borrow.timeSupplier(() -> borrowConnection(endpoint)));
         logger.trace("Executing task {} (oneOff={})! Connection received in {} ms [operation ID {}]", task, oneOffTask,
                 System.currentTimeMillis() - connectionBorrowStart, operationId);
         if (scheduledThreadPoolExecutor == null) {
@@ -468,7 +567,13 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        boolean registered;
+        if (task instanceof CoalescedPollTask) {
+            registered = ((CoalescedPollTask) task).getTasks().stream().anyMatch(scheduledPollTasks::containsKey);
+        } else {
+            registered = scheduledPollTasks.containsKey(task);
+        }
+        if (!registered) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -577,6 +682,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     break;
                 } catch (IOException e) {
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
+                    recordFailedTry(endpoint, e);
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
                     if (willRetry) {
@@ -594,6 +700,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusIOException e) {
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
+                    recordFailedTry(endpoint, e);
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
                     if (willRetry) {
@@ -611,6 +718,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusSlaveException e) {
                     lastError.set(new ModbusSlaveErrorResponseExceptionImpl(e));
+                    recordFailedTry(endpoint, e);
                     // Slave returned explicit error response, no reason to re-establish new connection
                     if (willRetry) {
                         logger.warn(
@@ -624,6 +732,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusUnexpectedTransactionIdException e) {
                     lastError.set(e);
+                    recordFailedTry(endpoint, e);
                     // transaction error details already logged
                     if (willRetry) {
                         logger.warn(
@@ -640,6 +749,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusException e) {
                     lastError.set(e);
+                    recordFailedTry(endpoint, e);
                     // Some other (unexpected) exception occurred
                     if (willRetry) {
                         logger.warn(
@@ -687,7 +797,46 @@ public class ModbusManagerImpl implements ModbusManager {
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
             timer.suspendAllRunning();
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
+            EndpointMetrics metrics = endpointMetrics.get(endpoint);
+            if (metrics != null) {
+                metrics.recordOperation(timer, lastError.get() != null || !connection.isPresent());
+            }
+        }
+    }
+
+    private void recordFailedTry(ModbusSlaveEndpoint endpoint, Exception error) {
+        EndpointMetrics metrics = endpointMetrics.get(endpoint);
+        if (metrics != null) {
+            metrics.recordFailedTry(error);
+        }
+    }
+
+    private EndpointTaskQueue getEndpointQueue(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint) {
+        EndpointTaskQueue queue = endpointQueues.computeIfAbsent(endpoint, e -> new EndpointTaskQueue(e, executor));
+        endpointMetrics.computeIfAbsent(endpoint, e -> new EndpointMetrics(queue));
+        return queue;
+    }
+
+    /**
+     * Queue execution of regularly polled task. The poll is not queued if it is still waiting from the previous
+     * period, and it is dropped if it cannot be executed within one poll period.
+     */
+    private void submitRegularPoll(PollTask task, long pollPeriodMillis) {
+        ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+        if (executor == null) {
+            return;
         }
+        long scheduleTime = System.currentTimeMillis();
+        getEndpointQueue(executor, task.getEndpoint()).submit(() -> {
+            long started = System.currentTimeMillis();
+            logger.debug("Executing scheduled ({}ms) poll task {}, waited in queue for {} ms", pollPeriodMillis, task,
+                    started - scheduleTime);
+            executeOperation(task, false, pollOperation);
+            long finished = System.currentTimeMillis();
+            logger.debug(
+                    "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                    pollPeriodMillis, task, finished, started, finished - started);
+        }, EndpointTaskQueue.Priority.REGULAR_POLL, pollPeriodMillis, task);
     }
 
     @Override
@@ -696,13 +845,11 @@ public class ModbusManagerImpl implements ModbusManager {
         Objects.requireNonNull(executor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off poll task {}", task);
-        ScheduledFuture<?> future = executor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
+        return getEndpointQueue(executor, task.getEndpoint()).submitOneTime(() -> {
+            long millisInQueue = System.currentTimeMillis() - scheduleTime;
+            logger.debug("Will now execute one-off poll task {}, waited in queue for {}", task, millisInQueue);
             executeOperation(task, true, pollOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        }, EndpointTaskQueue.Priority.ONE_OFF_POLL);
     }
 
     @Override
@@ -716,16 +863,13 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
-            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                executeOperation(task, false, pollOperation);
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
-            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+            if (pollCoalescingMaxGap >= 0) {
+                registerCoalescedPoll(executor, task, pollPeriodMillis, initialDelayMillis);
+                return;
+            }
+            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(
+                    () -> submitRegularPoll(task, pollPeriodMillis), initialDelayMillis, pollPeriodMillis,
+                    TimeUnit.MILLISECONDS);
 
             scheduledPollTasks.put(task, future);
             logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
@@ -733,6 +877,26 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    private void registerCoalescedPoll(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis) {
+        PollGroupKey key = new PollGroupKey(task, pollPeriodMillis);
+        PollGroup group = pollGroups.get(key);
+        if (group == null) {
+            group = new PollGroup(pollPeriodMillis);
+            group.future = executor.scheduleWithFixedDelay(group, initialDelayMillis, pollPeriodMillis,
+                    TimeUnit.MILLISECONDS);
+            pollGroups.put(key, group);
+        }
+        group.add(task);
+        pollGroupKeys.put(task, key);
+        ScheduledFuture<?> future = group.future;
+        if (future != null) {
+            scheduledPollTasks.put(task, future);
+        }
+        logger.trace("Registered poll task {} with period {} to coalesced group of {} tasks", task,
+                pollPeriodMillis, group.tasks.size());
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -756,7 +920,18 @@ public class ModbusManagerImpl implements ModbusManager {
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
+            PollGroupKey groupKey = pollGroupKeys.remove(task);
+            PollGroup group = groupKey == null ? null : pollGroups.get(groupKey);
+            if (group == null || group.remove(task)) {
+                if (groupKey != null) {
+                    pollGroups.remove(groupKey);
+                }
+                future.cancel(true);
+            }
+            EndpointTaskQueue queue = endpointQueues.get(task.getEndpoint());
+            if (queue != null) {
+                queue.remove(task);
+            }
 
             logger.info("Poll task {} canceled", task);
 
@@ -781,13 +956,11 @@ public class ModbusManagerImpl implements ModbusManager {
         Objects.requireNonNull(scheduledThreadPoolExecutor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off write task {}", task);
-        ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
+        return getEndpointQueue(scheduledThreadPoolExecutor, task.getEndpoint()).submitOneTime(() -> {
+            long millisInQueue = System.currentTimeMillis() - scheduleTime;
+            logger.debug("Will now execute one-off write task {}, waited in queue for {}", task, millisInQueue);
             executeOperation(task, true, writeOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        }, EndpointTaskQueue.Priority.WRITE);
     }
 
     @Override
@@ -821,10 +994,26 @@ public class ModbusManagerImpl implements ModbusManager {
         return this.scheduledPollTasks.keySet();
     }
 
+    @Override
+    public Collection<ModbusEndpointMetrics> getEndpointMetrics() {
+        return new ArrayList<>(endpointMetrics.values());
+    }
+
     @Activate
     protected void activate(Map<String, Object> configProperties) {
         synchronized (this) {
             logger.info("Modbus manager activated");
+            Object maxGap = configProperties.get(CONFIG_POLL_COALESCING_MAX_GAP);
+            if (maxGap != null) {
+                try {
+                    pollCoalescingMaxGap = Integer.parseInt(maxGap.toString().trim());
+                } catch (NumberFormatException e) {
+                    logger.warn("Invalid {} '{}', poll coalescing disabled", CONFIG_POLL_COALESCING_MAX_GAP, maxGap);
+                    pollCoalescingMaxGap = -1;
+                }
+            } else {
+                pollCoalescingMaxGap = -1;
+            }
             if (connectionPool == null) {
                 constructConnectionPool();
             }
@@ -860,6 +1049,9 @@ public class ModbusManagerImpl implements ModbusManager {
                 monitorFuture.cancel(true);
                 monitorFuture = null;
             }
+            endpointQueues.values().forEach(EndpointTaskQueue::clear);
+            endpointQueues.clear();
+            endpointMetrics.clear();
             // Note that it is not allowed to shutdown the executor, since they will be reused when
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
@@ -899,6 +1091,16 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
 
+            endpointQueues.values().forEach(queue -> {
+                pollMonitorLogger.trace("POLL MONITOR: {}", queue);
+                pollMonitorLogger.trace("POLL MONITOR: {}", endpointMetrics.get(queue.getEndpoint()));
+                if (queue.getQueueDepth() >= WARN_QUEUE_SIZE) {
+                    pollMonitorLogger.warn(
+                            "Many ({}) tasks queued for endpoint {}! The endpoint might be too slow for the configured poll rates.",
+                            queue.getQueueDepth(), queue.getEndpoint());
+                }
+            });
+
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
     }
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+
+/**
+ * Formats endpoint metrics in the Prometheus text exposition format
+ *
+ * Latencies are written as summaries in seconds, counters and gauges as is. Each endpoint is identified with the
+ * <tt>endpoint</tt> label.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusMetricsFormatter {
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    /**
+     * Format the metrics
+     *
+     * @param metrics metrics of all endpoints
+     * @return metrics in the Prometheus text format
+     */
+    public static String format(Collection<ModbusEndpointMetrics> metrics) {
+        StringBuilder builder = new StringBuilder();
+        appendSummary(builder, metrics, "modbus_queue_wait_seconds", "Time operations waited in the endpoint queue",
+                ModbusEndpointMetrics::getQueueWait);
+        appendSummary(builder, metrics, "modbus_borrow_seconds", "Time spent borrowing connections from the pool",
+                ModbusEndpointMetrics::getBorrow);
+        appendSummary(builder, metrics, "modbus_transaction_seconds",
+                "Time spent in transactions with the slave per operation", ModbusEndpointMetrics::getTransaction);
+        appendSummary(builder, metrics, "modbus_callback_seconds", "Time spent in callbacks per operation",
+                ModbusEndpointMetrics::getCallback);
+        appendValue(builder, metrics, "modbus_operations_total", "counter", "Number of executed operations",
+                ModbusEndpointMetrics::getOperationCount);
+        appendValue(builder, metrics, "modbus_errors_total", "counter", "Number of operations which failed",
+                ModbusEndpointMetrics::getErrorCount);
+        appendValue(builder, metrics, "modbus_timeouts_total", "counter", "Number of tries which timed out",
+                ModbusEndpointMetrics::getTimeoutCount);
+        appendValue(builder, metrics, "modbus_dropped_total", "counter",
+                "Number of operations dropped from the queue after their deadline",
+                ModbusEndpointMetrics::getDroppedCount);
+        appendValue(builder, metrics, "modbus_queue_depth", "gauge", "Number of operations waiting in the queue",
+                ModbusEndpointMetrics::getQueueDepth);
+        return builder.toString();
+    }
+
+    private static void appendSummary(StringBuilder builder, Collection<ModbusEndpointMetrics> metrics, String name,
+            String help, Function<ModbusEndpointMetrics, ModbusLatencyHistogram> histogramGetter) {
+        appendHeader(builder, name, "summary", help);
+        for (ModbusEndpointMetrics endpointMetrics : metrics) {
+            ModbusLatencyHistogram histogram = histogramGetter.apply(endpointMetrics);
+            String endpoint = escape(endpointMetrics.getEndpoint().toString());
+            for (double quantile : QUANTILES) {
+                builder.append(name).append("{endpoint=\"").append(endpoint).append("\",quantile=\"").append(quantile)
+                        .append("\"} ").append(seconds(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            builder.append(name).append("_sum{endpoint=\"").append(endpoint).append("\"} ")
+                    .append(seconds(histogram.getSum())).append('\n');
+            builder.append(name).append("_count{endpoint=\"").append(endpoint).append("\"} ")
+                    .append(histogram.getCount()).append('\n');
+        }
+    }
+
+    private static void appendValue(StringBuilder builder, Collection<ModbusEndpointMetrics> metrics, String name,
+            String type, String help, ToLongFunction<ModbusEndpointMetrics> getter) {
+        appendHeader(builder, name, type, help);
+        for (ModbusEndpointMetrics endpointMetrics : metrics) {
+            builder.append(name).append("{endpoint=\"").append(escape(endpointMetrics.getEndpoint().toString()))
+                    .append("\"} ").append(getter.applyAsLong(endpointMetrics)).append('\n');
+        }
+    }
+
+    private static void appendHeader(StringBuilder builder, String name, String type, String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
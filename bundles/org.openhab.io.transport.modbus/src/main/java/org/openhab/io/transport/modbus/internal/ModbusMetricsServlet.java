@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.ModbusManager;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.http.HttpService;
+import org.osgi.service.http.NamespaceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scrape endpoint for Modbus metrics, serving {@link ModbusManager#getEndpointMetrics()} in the Prometheus text
+ * format
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ModbusMetricsServlet.class, immediate = true)
+public class ModbusMetricsServlet extends HttpServlet {
+    private static final long serialVersionUID = 2838211513447312487L;
+
+    public static final String SERVLET_URL = "/modbus/metrics";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusMetricsServlet.class);
+    private final HttpService httpService;
+    private final ModbusManager manager;
+
+    @Activate
+    public ModbusMetricsServlet(@Reference HttpService httpService, @Reference ModbusManager manager) {
+        this.httpService = httpService;
+        this.manager = manager;
+        try {
+            httpService.registerServlet(SERVLET_URL, this, null, httpService.createDefaultHttpContext());
+        } catch (ServletException | NamespaceException e) {
+            logger.warn("Could not register Modbus metrics servlet at {}: {}", SERVLET_URL, e.getMessage());
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        try {
+            httpService.unregister(SERVLET_URL);
+        } catch (IllegalArgumentException e) {
+            // servlet was not registered
+        }
+    }
+
+    @Override
+    protected void doGet(@Nullable HttpServletRequest req, @Nullable HttpServletResponse resp)
+            throws ServletException, IOException {
+        if (resp == null) {
+            return;
+        }
+        byte[] body = ModbusMetricsFormatter.format(manager.getEndpointMetrics()).getBytes(StandardCharsets.UTF_8);
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(CONTENT_TYPE);
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
+    }
+}
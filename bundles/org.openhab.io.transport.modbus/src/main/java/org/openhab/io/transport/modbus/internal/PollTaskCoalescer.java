@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+
+/**
+ * Merges poll tasks reading contiguous, overlapping or nearby ranges into single requests.
+ *
+ * Only tasks of the same endpoint, unit id and function code are merged. The length of a merged request never
+ * exceeds the maximum allowed by the Modbus protocol for the function code.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PollTaskCoalescer {
+
+    /**
+     * Maximum number of registers in a single read request
+     */
+    public static final int MAX_REGISTERS_PER_READ = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in a single read request
+     */
+    public static final int MAX_BITS_PER_READ = 2000;
+
+    private PollTaskCoalescer() {
+    }
+
+    /**
+     * Get maximum number of registers or bits that can be read with single request of the given function code
+     *
+     * @param functionCode read function code
+     * @return maximum data length
+     */
+    public static int getMaxDataLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_READ;
+            default:
+                return MAX_REGISTERS_PER_READ;
+        }
+    }
+
+    /**
+     * Coalesce tasks
+     *
+     * @param tasks tasks to coalesce. All tasks must share endpoint, unit id and function code.
+     * @param maxGap maximum number of unrequested registers or bits between two ranges that are still merged. Use
+     *            negative value to merge only overlapping ranges, zero to merge also adjacent ranges.
+     * @return tasks to execute. Tasks that could not be merged with others are returned as is, others are
+     *         represented by {@link CoalescedPollTask}s.
+     */
+    public static List<PollTask> coalesce(Collection<PollTask> tasks, int maxGap) {
+        return coalesce(tasks, maxGap, task -> true);
+    }
+
+    /**
+     * Coalesce tasks which might get unregistered before the coalesced tasks are executed
+     *
+     * @param tasks tasks to coalesce. All tasks must share endpoint, unit id and function code.
+     * @param maxGap maximum number of unrequested registers or bits between two ranges that are still merged. Use
+     *            negative value to merge only overlapping ranges, zero to merge also adjacent ranges.
+     * @param isRegistered tells whether a task is still registered. The callbacks of unregistered tasks are not
+     *            invoked by the {@link CoalescedPollTask}s.
+     * @return tasks to execute. Tasks that could not be merged with others are returned as is, others are
+     *         represented by {@link CoalescedPollTask}s.
+     */
+    public static List<PollTask> coalesce(Collection<PollTask> tasks, int maxGap, Predicate<PollTask> isRegistered) {
+        List<PollTask> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparingInt((PollTask task) -> task.getRequest().getReference())
+                .thenComparingInt(task -> task.getRequest().getDataLength()));
+        List<PollTask> result = new ArrayList<>();
+        List<PollTask> block = new ArrayList<>();
+        int blockStart = 0;
+        int blockEnd = 0;
+        for (PollTask task : sorted) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            int start = request.getReference();
+            int end = start + request.getDataLength();
+            int mergedEnd = Math.max(blockEnd, end);
+            if (!block.isEmpty() && start - blockEnd <= maxGap
+                    && mergedEnd - blockStart <= getMaxDataLength(request.getFunctionCode())) {
+                block.add(task);
+                blockEnd = mergedEnd;
+                continue;
+            }
+            flush(block, blockStart, blockEnd, isRegistered, result);
+            block = new ArrayList<>();
+            block.add(task);
+            blockStart = start;
+            blockEnd = end;
+        }
+        flush(block, blockStart, blockEnd, isRegistered, result);
+        return result;
+    }
+
+    private static void flush(List<PollTask> block, int start, int end, Predicate<PollTask> isRegistered,
+            List<PollTask> result) {
+        if (block.isEmpty()) {
+            return;
+        } else if (block.size() == 1) {
+            result.add(block.get(0));
+            return;
+        }
+        PollTask first = block.get(0);
+        ModbusReadRequestBlueprint firstRequest = first.getRequest();
+        int maxTries = block.stream().mapToInt(task -> task.getRequest().getMaxTries()).max().orElse(1);
+        BasicModbusReadRequestBlueprint request = new BasicModbusReadRequestBlueprint(firstRequest.getUnitID(),
+                firstRequest.getFunctionCode(), start, end - start, maxTries);
+        result.add(new CoalescedPollTask(first.getEndpoint(), request, block, isRegistered));
+    }
+}
@@ -12,6 +12,7 @@
  */
 package org.openhab.io.transport.modbus.internal;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -29,8 +30,9 @@ import net.wimpi.modbus.ModbusException;
 @NonNullByDefault
 public class SimpleStopWatch {
 
-    private volatile long totalMillis;
+    private volatile long totalNanos;
     private volatile long resumed;
+    private volatile boolean running;
 
     @FunctionalInterface
     public abstract interface SupplierWithPollTaskUnregisteredException<T> {
@@ -51,7 +53,8 @@ public class SimpleStopWatch {
         if (isRunning()) {
             throw new IllegalStateException("Cannot suspend a running StopWatch");
         }
-        resumed = System.currentTimeMillis();
+        resumed = System.nanoTime();
+        running = true;
     }
 
     /**
@@ -63,8 +66,8 @@ public class SimpleStopWatch {
         if (!isRunning()) {
             throw new IllegalStateException("Cannot suspend non-running StopWatch");
         }
-        totalMillis += System.currentTimeMillis() - resumed;
-        resumed = 0;
+        totalNanos += System.nanoTime() - resumed;
+        running = false;
     }
 
     /**
@@ -73,7 +76,16 @@ public class SimpleStopWatch {
      * @return total running time in milliseconds
      */
     public synchronized long getTotalTimeMillis() {
-        return totalMillis;
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+    }
+
+    /**
+     * Get total running time of this StopWatch in nanoseconds
+     *
+     * @return total running time in nanoseconds
+     */
+    public synchronized long getTotalTimeNanos() {
+        return totalNanos;
     }
 
     /**
@@ -82,7 +94,7 @@ public class SimpleStopWatch {
      * @return boolean telling whether this StopWatch is running
      */
     public synchronized boolean isRunning() {
-        return resumed > 0;
+        return running;
     }
 
     /**
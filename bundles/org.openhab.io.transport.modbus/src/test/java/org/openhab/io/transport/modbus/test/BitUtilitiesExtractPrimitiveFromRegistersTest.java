@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusRegister;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Compares the primitive decoding against a reference decoding done with {@link ByteBuffer}
+ *
+ * @author agent - Initial contribution
+ */
+public class BitUtilitiesExtractPrimitiveFromRegistersTest {
+
+    private static final int REGISTERS = 8;
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testIntegerTypesMatchReferenceDecoding() {
+        for (int round = 0; round < 200; round++) {
+            byte[] bytes = randomBytes();
+            ModbusRegisterArray registers = registers(bytes);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int index = 0; index < REGISTERS * 16; index++) {
+                int bit = (buffer.getShort(2 * (index / 16)) >> (index % 16)) & 1;
+                assertDecoded(registers, index, ValueType.BIT, bit);
+            }
+            for (int index = 0; index < REGISTERS * 2; index++) {
+                // index 0 is the low byte of the first register
+                byte value = bytes[2 * (index / 2) + 1 - (index % 2)];
+                assertDecoded(registers, index, ValueType.INT8, value);
+                assertDecoded(registers, index, ValueType.UINT8, value & 0xff);
+            }
+            for (int index = 0; index < REGISTERS; index++) {
+                assertDecoded(registers, index, ValueType.INT16, buffer.getShort(2 * index));
+                assertDecoded(registers, index, ValueType.UINT16, buffer.getShort(2 * index) & 0xffff);
+            }
+            for (int index = 0; index < REGISTERS - 1; index++) {
+                int value = buffer.getInt(2 * index);
+                int swapped = swapRegisters(bytes, index, 2).getInt(0);
+                assertDecoded(registers, index, ValueType.INT32, value);
+                assertDecoded(registers, index, ValueType.UINT32, value & 0xffffffffL);
+                assertDecoded(registers, index, ValueType.INT32_SWAP, swapped);
+                assertDecoded(registers, index, ValueType.UINT32_SWAP, swapped & 0xffffffffL);
+            }
+            for (int index = 0; index < REGISTERS - 3; index++) {
+                long value = buffer.getLong(2 * index);
+                long swapped = swapRegisters(bytes, index, 4).getLong(0);
+                assertDecoded(registers, index, ValueType.INT64, value);
+                assertDecoded(registers, index, ValueType.INT64_SWAP, swapped);
+                assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, index, ValueType.UINT64),
+                        is(equalTo(value)));
+                assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, index, ValueType.UINT64_SWAP),
+                        is(equalTo(swapped)));
+                assertThat(ModbusBitUtilities.extractDoubleFromRegisters(registers, index, ValueType.UINT64),
+                        is(equalTo(new BigInteger(Long.toUnsignedString(value)).doubleValue())));
+                assertThat(ModbusBitUtilities.extractDoubleFromRegisters(registers, index, ValueType.UINT64_SWAP),
+                        is(equalTo(new BigInteger(Long.toUnsignedString(swapped)).doubleValue())));
+            }
+        }
+    }
+
+    @Test
+    public void testFloatTypesMatchReferenceDecoding() {
+        for (int round = 0; round < 200; round++) {
+            byte[] bytes = randomBytes();
+            ModbusRegisterArray registers = registers(bytes);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int index = 0; index < REGISTERS - 1; index++) {
+                assertThat(ModbusBitUtilities.extractDoubleFromRegisters(registers, index, ValueType.FLOAT32),
+                        is(equalTo((double) buffer.getFloat(2 * index))));
+                assertThat(ModbusBitUtilities.extractDoubleFromRegisters(registers, index, ValueType.FLOAT32_SWAP),
+                        is(equalTo((double) swapRegisters(bytes, index, 2).getFloat(0))));
+            }
+        }
+    }
+
+    @Test
+    public void testFloatNaNIsReturnedAsIs() {
+        ModbusRegisterArray registers = registers(new byte[] { (byte) 0x7f, (byte) 0xc0, 0, 0 });
+        assertThat(Double.isNaN(ModbusBitUtilities.extractDoubleFromRegisters(registers, 0, ValueType.FLOAT32)),
+                is(true));
+        assertThat(ModbusBitUtilities.extractStateFromRegisters(registers, 0, ValueType.FLOAT32).isPresent(),
+                is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFloatCannotBeExtractedAsLong() {
+        ModbusBitUtilities.extractLongFromRegisters(registers(new byte[4]), 0, ValueType.FLOAT32);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfBounds() {
+        ModbusBitUtilities.extractDoubleFromRegisters(registers(new byte[4]), 1, ValueType.FLOAT32);
+    }
+
+    private void assertDecoded(ModbusRegisterArray registers, int index, ValueType type, long expected) {
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, index, type), is(equalTo(expected)));
+        assertThat(ModbusBitUtilities.extractDoubleFromRegisters(registers, index, type),
+                is(equalTo((double) expected)));
+    }
+
+    private byte[] randomBytes() {
+        byte[] bytes = new byte[REGISTERS * 2];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Copy given number of registers starting from index, last register first
+     */
+    private static ByteBuffer swapRegisters(byte[] bytes, int index, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(count * 2);
+        for (int i = index + count - 1; i >= index; i--) {
+            buffer.put(bytes, 2 * i, 2);
+        }
+        return buffer;
+    }
+
+    private static ModbusRegisterArray registers(byte[] bytes) {
+        ModbusRegister[] registers = new ModbusRegister[bytes.length / 2];
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = new BasicModbusRegister(bytes[2 * i], bytes[2 * i + 1]);
+        }
+        return new BasicModbusRegisterArray(registers);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointTaskQueue;
+import org.openhab.io.transport.modbus.internal.EndpointTaskQueue.Priority;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class EndpointTaskQueueTest {
+
+    /**
+     * Executor which runs the submitted runnables only when asked to
+     */
+    private Queue<Runnable> executorQueue = new LinkedList<>();
+
+    private EndpointTaskQueue queue = new EndpointTaskQueue(new ModbusTCPSlaveEndpoint("localhost", 502),
+            executorQueue::add);
+
+    private void runAll() {
+        Runnable runnable;
+        while ((runnable = executorQueue.poll()) != null) {
+            runnable.run();
+        }
+    }
+
+    @Test
+    public void testWritesAreExecutedBeforePolls() {
+        List<String> executed = new ArrayList<>();
+        queue.submit(() -> executed.add("poll1"), Priority.REGULAR_POLL, 0, null);
+        queue.submit(() -> executed.add("oneoff"), Priority.ONE_OFF_POLL, 0, null);
+        queue.submit(() -> executed.add("write1"), Priority.WRITE, 0, null);
+        queue.submit(() -> executed.add("poll2"), Priority.REGULAR_POLL, 0, null);
+        queue.submit(() -> executed.add("write2"), Priority.WRITE, 0, null);
+
+        runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("write1", "write2", "oneoff", "poll1", "poll2"))));
+        assertThat(queue.getExecutedCount(), is(equalTo(5L)));
+        assertThat(queue.getQueueDepth(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testOnlyOneOperationIsExecutedAtATime() {
+        queue.submit(() -> {
+        }, Priority.REGULAR_POLL, 0, null);
+        queue.submit(() -> {
+        }, Priority.REGULAR_POLL, 0, null);
+
+        assertThat(executorQueue.size(), is(equalTo(1)));
+        runAll();
+        assertThat(queue.getExecutedCount(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testOperationWithQueuedKeyIsSkipped() {
+        Object key = new Object();
+        assertThat(queue.submit(() -> {
+        }, Priority.REGULAR_POLL, 0, key), is(true));
+        assertThat(queue.submit(() -> {
+        }, Priority.REGULAR_POLL, 0, key), is(false));
+
+        runAll();
+
+        assertThat(queue.getExecutedCount(), is(equalTo(1L)));
+        assertThat(queue.getSkippedCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testStaleOperationIsDropped() throws InterruptedException {
+        List<String> executed = new ArrayList<>();
+        queue.submit(() -> executed.add("stale"), Priority.REGULAR_POLL, 1, null);
+        queue.submit(() -> executed.add("fresh"), Priority.REGULAR_POLL, 0, null);
+        Thread.sleep(10);
+
+        runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("fresh"))));
+        assertThat(queue.getDroppedCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testRemovedOperationIsNotExecuted() {
+        Object key = new Object();
+        List<String> executed = new ArrayList<>();
+        queue.submit(() -> executed.add("removed"), Priority.REGULAR_POLL, 0, key);
+        queue.remove(key);
+
+        runAll();
+
+        assertThat(executed.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testOneTimeFutureIsDoneAfterExecution() {
+        List<String> executed = new ArrayList<>();
+        Future<?> future = queue.submitOneTime(() -> executed.add("write"), Priority.WRITE);
+
+        assertThat(future.isDone(), is(false));
+        runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("write"))));
+        assertThat(future.isDone(), is(true));
+        assertThat(future.isCancelled(), is(false));
+    }
+
+    @Test
+    public void testCancelledOneTimeOperationIsRemoved() {
+        List<String> executed = new ArrayList<>();
+        Future<?> future = queue.submitOneTime(() -> executed.add("cancelled"), Priority.ONE_OFF_POLL);
+        queue.submitOneTime(() -> executed.add("executed"), Priority.ONE_OFF_POLL);
+
+        assertThat(future.cancel(false), is(true));
+        assertThat(queue.getQueueDepth(), is(equalTo(1)));
+        runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("executed"))));
+        assertThat(queue.getExecutedCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testClearCancelsOneTimeFutures() {
+        Future<?> future = queue.submitOneTime(() -> {
+        }, Priority.WRITE);
+
+        queue.clear();
+
+        assertThat(future.isCancelled(), is(true));
+        assertThat(queue.getQueueDepth(), is(equalTo(0)));
+    }
+}
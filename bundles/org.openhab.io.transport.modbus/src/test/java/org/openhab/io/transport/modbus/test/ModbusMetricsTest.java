@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointMetrics;
+import org.openhab.io.transport.modbus.internal.EndpointTaskQueue;
+import org.openhab.io.transport.modbus.internal.EndpointTaskQueue.Priority;
+import org.openhab.io.transport.modbus.internal.LatencyHistogram;
+import org.openhab.io.transport.modbus.internal.ModbusMetricsFormatter;
+
+import net.wimpi.modbus.ModbusIOException;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusMetricsTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getMean(), is(0.0));
+        assertThat(histogram.getValueAtPercentile(99), is(0L));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 20; i++) {
+            histogram.record(i);
+        }
+        assertThat(histogram.getCount(), is(20L));
+        assertThat(histogram.getSum(), is(210L));
+        assertThat(histogram.getValueAtPercentile(50), is(10L));
+        assertThat(histogram.getValueAtPercentile(100), is(20L));
+        assertThat(histogram.getMax(), is(20L));
+    }
+
+    @Test
+    public void testLargeValuesHaveBoundedRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000_000; value += 997) {
+            histogram.record(value);
+        }
+        long median = histogram.getValueAtPercentile(50);
+        assertThat(Math.abs(median - 5_000_000) < 5_000_000 / 16, is(true));
+        long p99 = histogram.getValueAtPercentile(99);
+        assertThat(Math.abs(p99 - 9_900_000) < 9_900_000 / 16, is(true));
+        assertThat(histogram.getValueAtPercentile(100), is(histogram.getMax()));
+    }
+
+    @Test
+    public void testTimeoutsAreCounted() {
+        EndpointMetrics metrics = new EndpointMetrics(
+                new EndpointTaskQueue(new ModbusTCPSlaveEndpoint("localhost", 502), Runnable::run));
+        metrics.recordFailedTry(new SocketTimeoutException("Read timed out"));
+        metrics.recordFailedTry(new ModbusIOException("I/O exception: SocketTimeoutException Read timed out"));
+        metrics.recordFailedTry(new ModbusIOException("Premature end of stream"));
+
+        assertThat(metrics.getTimeoutCount(), is(2L));
+    }
+
+    @Test
+    public void testQueueWaitIsRecorded() {
+        Queue<Runnable> executorQueue = new LinkedList<>();
+        EndpointTaskQueue queue = new EndpointTaskQueue(new ModbusTCPSlaveEndpoint("localhost", 502),
+                executorQueue::add);
+        EndpointMetrics metrics = new EndpointMetrics(queue);
+        queue.submit(() -> {
+        }, Priority.WRITE, 0, null);
+        queue.submit(() -> {
+        }, Priority.WRITE, 0, null);
+        assertThat(metrics.getQueueDepth(), is(2));
+
+        Runnable runnable;
+        while ((runnable = executorQueue.poll()) != null) {
+            runnable.run();
+        }
+
+        assertThat(metrics.getQueueDepth(), is(0));
+        assertThat(metrics.getQueueWait().getCount(), is(2L));
+    }
+
+    @Test
+    public void testPrometheusFormat() {
+        EndpointMetrics metrics = new EndpointMetrics(
+                new EndpointTaskQueue(new ModbusTCPSlaveEndpoint("localhost", 502), Runnable::run));
+        metrics.getBorrow().record(1500);
+
+        String text = ModbusMetricsFormatter.format(Collections.singletonList(metrics));
+
+        String endpoint = "endpoint=\"" + metrics.getEndpoint().toString().replace("\"", "\\\"") + "\"";
+        assertThat(text, containsString("# TYPE modbus_borrow_seconds summary\n"));
+        assertThat(text, containsString("modbus_borrow_seconds{" + endpoint + ",quantile=\"0.5\"} 0.001500\n"));
+        assertThat(text, containsString("modbus_borrow_seconds_count{" + endpoint + "} 1\n"));
+        assertThat(text, containsString("# TYPE modbus_errors_total counter\n"));
+        assertThat(text, containsString("modbus_errors_total{" + endpoint + "} 0\n"));
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+import org.openhab.io.transport.modbus.internal.PollTaskCoalescer;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class PollTaskCoalescerTest {
+
+    private ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private PollTask task(int start, int length) {
+        return task(start, length, mock(ModbusReadCallback.class));
+    }
+
+    private PollTask task(int start, int length, ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length, 1), callback);
+    }
+
+    @Test
+    public void testAdjacentRangesAreMerged() {
+        List<PollTask> result = PollTaskCoalescer.coalesce(Arrays.asList(task(10, 5), task(0, 10), task(20, 5)), 0);
+
+        assertThat(result.size(), is(equalTo(2)));
+        assertThat(result.get(0), is(instanceOf(CoalescedPollTask.class)));
+        assertThat(result.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(result.get(0).getRequest().getDataLength(), is(equalTo(15)));
+        assertThat(((CoalescedPollTask) result.get(0)).getTasks().size(), is(equalTo(2)));
+        assertThat(result.get(1).getRequest().getReference(), is(equalTo(20)));
+        assertThat(result.get(1), is(not(instanceOf(CoalescedPollTask.class))));
+    }
+
+    @Test
+    public void testRangesWithinGapAreMerged() {
+        List<PollTask> result = PollTaskCoalescer.coalesce(Arrays.asList(task(10, 5), task(0, 10), task(20, 5)), 5);
+
+        assertThat(result.size(), is(equalTo(1)));
+        assertThat(result.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(result.get(0).getRequest().getDataLength(), is(equalTo(25)));
+    }
+
+    @Test
+    public void testOverlappingRangesAreMerged() {
+        List<PollTask> result = PollTaskCoalescer.coalesce(Arrays.asList(task(0, 10), task(5, 10), task(2, 3)), -1);
+
+        assertThat(result.size(), is(equalTo(1)));
+        assertThat(result.get(0).getRequest().getDataLength(), is(equalTo(15)));
+    }
+
+    @Test
+    public void testProtocolMaximumIsNotExceeded() {
+        List<PollTask> result = PollTaskCoalescer.coalesce(Arrays.asList(task(0, 100), task(100, 30)), 0);
+
+        assertThat(result.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testResponseIsSlicedToCallbacks() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(0, 2, callback1);
+        PollTask task2 = task(3, 2, callback2);
+        PollTask coalesced = PollTaskCoalescer.coalesce(Arrays.asList(task1, task2), 1).get(0);
+
+        coalesced.getCallback().onRegisters(coalesced.getRequest(), new BasicModbusRegisterArray(1, 2, 3, 4, 5));
+
+        ArgumentCaptor<ModbusRegisterArray> registers1 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback1).onRegisters(eq(task1.getRequest()), registers1.capture());
+        assertThat(registers1.getValue().size(), is(equalTo(2)));
+        assertThat(registers1.getValue().getRegister(0).getValue(), is(equalTo(1)));
+        assertThat(registers1.getValue().getRegister(1).getValue(), is(equalTo(2)));
+
+        ArgumentCaptor<ModbusRegisterArray> registers2 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback2).onRegisters(eq(task2.getRequest()), registers2.capture());
+        assertThat(registers2.getValue().size(), is(equalTo(2)));
+        assertThat(registers2.getValue().getRegister(0).getValue(), is(equalTo(4)));
+        assertThat(registers2.getValue().getRegister(1).getValue(), is(equalTo(5)));
+    }
+
+    @Test
+    public void testErrorIsForwardedToAllCallbacks() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(0, 2, callback1);
+        PollTask task2 = task(2, 2, callback2);
+        PollTask coalesced = PollTaskCoalescer.coalesce(Arrays.asList(task1, task2), 0).get(0);
+        Exception error = new Exception();
+
+        coalesced.getCallback().onError(coalesced.getRequest(), error);
+
+        verify(callback1).onError(task1.getRequest(), error);
+        verify(callback2).onError(task2.getRequest(), error);
+        verify(callback1, never()).onRegisters(any(ModbusReadRequestBlueprint.class), any());
+    }
+
+    @Test
+    public void testUnregisteredTasksAreSkipped() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(0, 2, callback1);
+        PollTask task2 = task(2, 2, callback2);
+        Set<PollTask> registered = new HashSet<>(Arrays.asList(task1, task2));
+        PollTask coalesced = PollTaskCoalescer.coalesce(registered, 0, registered::contains).get(0);
+
+        // unregistered while the coalesced task is queued
+        registered.remove(task2);
+        coalesced.getCallback().onRegisters(coalesced.getRequest(), new BasicModbusRegisterArray(1, 2, 3, 4));
+        coalesced.getCallback().onError(coalesced.getRequest(), new Exception());
+
+        verify(callback1).onRegisters(eq(task1.getRequest()), any());
+        verify(callback1).onError(eq(task1.getRequest()), any());
+        verifyNoMoreInteractions(callback2);
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mapdb.DB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Group commit pipeline for the MapDB persistence service.
+ *
+ * Instead of committing the database for every stored state, updates are queued per alias (last write wins) and
+ * written to the map and committed in a single transaction once either the maximum batch size is reached or the
+ * maximum delay since the first queued update has passed. Queued values are only encoded into their stored form
+ * when they are written, so coalesced updates are never encoded.
+ *
+ * @param <V> type of the queued values
+ * @param <S> type of the values stored in the map
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbCommitPipeline<V, S> {
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbCommitPipeline.class);
+
+    private final DB db;
+    private final Map<String, S> map;
+    private final Function<V, S> encoder;
+    private final ScheduledExecutorService scheduler;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+
+    private final Map<String, V> pending = new ConcurrentHashMap<>();
+    private final Object scheduleLock = new Object();
+    private @Nullable ScheduledFuture<?> scheduledFlush;
+    private volatile boolean closed;
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong queuedUpdates = new AtomicLong();
+    private final AtomicLong coalescedUpdates = new AtomicLong();
+    private final AtomicLong writtenUpdates = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+
+    /**
+     * Creates a new pipeline
+     *
+     * @param db database to commit
+     * @param map map the queued values are written to
+     * @param encoder converts queued values into the stored form
+     * @param scheduler scheduler used for delayed and size triggered flushes
+     * @param maxBatchSize number of distinct pending aliases which triggers an immediate flush
+     * @param maxDelayMillis maximum time an update is held back before it is committed, 0 commits immediately
+     */
+    public MapDbCommitPipeline(DB db, Map<String, S> map, Function<V, S> encoder, ScheduledExecutorService scheduler,
+            int maxBatchSize, long maxDelayMillis) {
+        this.db = db;
+        this.map = map;
+        this.encoder = encoder;
+        this.scheduler = scheduler;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelayMillis = Math.max(0, maxDelayMillis);
+    }
+
+    /**
+     * Queues a value for the given alias. A value queued earlier for the same alias which is not yet committed is
+     * replaced.
+     *
+     * @param alias key of the value
+     * @param value value to store
+     */
+    public void enqueue(String alias, V value) {
+        if (closed) {
+            logger.debug("Pipeline already closed, storing '{}' directly", alias);
+            synchronized (this) {
+                map.put(alias, encoder.apply(value));
+                db.commit();
+            }
+            return;
+        }
+        queuedUpdates.incrementAndGet();
+        if (pending.put(alias, value) != null) {
+            coalescedUpdates.incrementAndGet();
+        }
+        if (pending.size() >= maxBatchSize || maxDelayMillis == 0) {
+            scheduleFlush(0);
+        } else {
+            scheduleFlush(maxDelayMillis);
+        }
+    }
+
+    /**
+     * Returns the value queued for the given alias which is not yet written to the map.
+     *
+     * @param alias key of the value
+     * @return pending value or null if there is none
+     */
+    public @Nullable V getPending(String alias) {
+        return pending.get(alias);
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        synchronized (scheduleLock) {
+            ScheduledFuture<?> future = scheduledFlush;
+            if (future != null && !future.isDone()) {
+                if (delayMillis > 0 || future.getDelay(TimeUnit.MILLISECONDS) <= 0) {
+                    // already scheduled early enough
+                    return;
+                }
+                future.cancel(false);
+            }
+            scheduledFlush = scheduler.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes all pending values to the map and commits the database if anything was written.
+     */
+    public synchronized void flush() {
+        synchronized (scheduleLock) {
+            // values enqueued from now on are not part of this batch and must schedule a flush of their own
+            scheduledFlush = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, V>> batch = new ArrayList<>(pending.entrySet());
+        int written = 0;
+        for (Map.Entry<String, V> entry : batch) {
+            // dequeue before encoding so that an update enqueued meanwhile is kept for the next batch
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                map.put(entry.getKey(), encoder.apply(entry.getValue()));
+                written++;
+            }
+        }
+        if (written == 0) {
+            return;
+        }
+        try {
+            db.commit();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to commit {} updates to MapDB database: {}", written, e.getMessage());
+            return;
+        }
+        writtenUpdates.addAndGet(written);
+        commits.incrementAndGet();
+        logger.trace("Committed {} updates to MapDB database ({})", written, this);
+    }
+
+    /**
+     * Stops scheduling and synchronously commits all pending values. Values enqueued afterwards are committed
+     * immediately.
+     */
+    public void close() {
+        closed = true;
+        synchronized (scheduleLock) {
+            ScheduledFuture<?> future = scheduledFlush;
+            if (future != null) {
+                future.cancel(false);
+            }
+            scheduledFlush = null;
+        }
+        flush();
+    }
+
+    /**
+     * @return number of updates currently waiting to be committed
+     */
+    public int getPendingUpdates() {
+        return pending.size();
+    }
+
+    /**
+     * @return total number of updates passed to {@link #enqueue(String, Object)}
+     */
+    public long getQueuedUpdates() {
+        return queuedUpdates.get();
+    }
+
+    /**
+     * @return number of updates which were replaced by a later update of the same alias before being committed
+     */
+    public long getCoalescedUpdates() {
+        return coalescedUpdates.get();
+    }
+
+    /**
+     * @return number of commits done since the pipeline was created
+     */
+    public long getCommits() {
+        return commits.get();
+    }
+
+    /**
+     * @return average number of commits per second since the pipeline was created
+     */
+    public double getCommitsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        return seconds > 0 ? commits.get() / seconds : 0;
+    }
+
+    /**
+     * @return average number of values written per commit
+     */
+    public double getAverageBatchSize() {
+        long commitCount = commits.get();
+        return commitCount > 0 ? (double) writtenUpdates.get() / commitCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("pending=%d, queued=%d, coalesced=%d, commits=%d, commits/s=%.2f, avgBatchSize=%.1f",
+                getPendingUpdates(), getQueuedUpdates(), getCoalescedUpdates(), getCommits(), getCommitsPerSecond(),
+                getAverageBatchSize());
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Converts entries stored as Gson JSON strings by former versions into the binary format of
+ * {@link MapDbItemSerializer}.
+ *
+ * Entries that cannot be converted, e.g. because the class of their state is not available yet, are kept in the
+ * JSON format and are tried again on the next migration.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbJsonMigration {
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbJsonMigration.class);
+
+    private final Gson mapper = new GsonBuilder()
+            .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
+            .create();
+
+    private final MapDbItemSerializer serializer;
+
+    public MapDbJsonMigration(MapDbItemSerializer serializer) {
+        this.serializer = serializer;
+    }
+
+    /**
+     * Replaces all JSON entries of the given map which can be read by their binary representation
+     *
+     * @param storedItems map of stored items by alias
+     * @return number of converted entries
+     */
+    public int migrate(Map<String, Object> storedItems) {
+        int migrated = 0;
+        for (Map.Entry<String, Object> entry : storedItems.entrySet()) {
+            Object value = entry.getValue();
+            if (!(value instanceof String)) {
+                continue;
+            }
+            MapDbItem item = fromJson(entry.getKey(), (String) value);
+            if (item == null || !item.isValid()) {
+                logger.warn("Keeping stored state of '{}' in the former format, it couldn't be migrated: {}",
+                        entry.getKey(), value);
+                continue;
+            }
+            storedItems.put(entry.getKey(), serializer.serialize(item));
+            migrated++;
+        }
+        return migrated;
+    }
+
+    private @Nullable MapDbItem fromJson(String alias, String json) {
+        try {
+            return mapper.<MapDbItem>fromJson(json, MapDbItem.class);
+        } catch (JsonParseException e) {
+            logger.debug("Couldn't parse stored state of '{}': {}", alias, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -15,13 +15,13 @@ package org.openhab.persistence.mapdb.internal;
 import java.io.File;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -37,13 +37,13 @@ import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
 /**
  * This is the implementation of the MapDB {@link PersistenceService}. To learn
  * more about MapDB please visit their <a
@@ -53,7 +53,9 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        MapDbPersistenceService.class }, configurationPid = "org.openhab.mapdb", property = Constants.SERVICE_PID
+                + "=org.openhab.mapdb")
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_NAME = "mapdb";
@@ -62,25 +64,52 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    private static final String CONFIG_COMMIT_BATCH_SIZE = "commitBatchSize";
+
+    private static final String CONFIG_COMMIT_DELAY = "commitDelay";
+
+    private static final int DEFAULT_COMMIT_BATCH_SIZE = 500;
+
+    private static final long DEFAULT_COMMIT_DELAY_MILLIS = 1000;
+
+    private static final String CONFIG_HISTORY_SIZE = "historySize";
+
+    private static final int DEFAULT_HISTORY_SIZE = 0;
+
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     @NonNullByDefault({})
-    private ExecutorService threadPool;
+    private ScheduledExecutorService threadPool;
 
     /** holds the local instance of the MapDB database */
     @NonNullByDefault({})
     private DB db;
     @NonNullByDefault({})
-    private Map<String, String> map;
+    private Map<String, byte[]> map;
+    @NonNullByDefault({})
+    private MapDbCommitPipeline<MapDbItem, byte[]> commitPipeline;
+    @NonNullByDefault({})
+    private MapDbCommitPipeline<MapDbTimeSeries, byte[]> historyPipeline;
+
+    /** number of states kept per item, 0 if only the latest state is kept */
+    private int historySize;
+
+    private final MapDbItemSerializer serializer = new MapDbItemSerializer();
 
-    private transient Gson mapper = new GsonBuilder()
-            .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
-            .create();
+    /** decoded items by alias, kept in sync with the database by {@link #store(Item, String)} */
+    private final Map<String, MapDbItem> cache = new ConcurrentHashMap<>();
 
-    public void activate() {
+    /** state history by alias, only used if {@link #historySize} is set */
+    private final Map<String, MapDbTimeSeries> history = new ConcurrentHashMap<>();
+
+    /** only used to migrate entries written in the former JSON format */
+    private final MapDbJsonMigration migration = new MapDbJsonMigration(serializer);
+
+    @Activate
+    public void activate(@Nullable Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
-        threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+        threadPool = ThreadPoolManager.getScheduledPool(getClass().getSimpleName());
 
         File folder = new File(DB_FOLDER_NAME);
         if (!folder.exists()) {
@@ -93,16 +122,98 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
         File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
         db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-        map = db.createTreeMap("itemStore").makeOrGet();
-        logger.debug("MapDB persistence service is now activated");
+        Map<String, Object> storedItems = db.createTreeMap("itemStore").makeOrGet();
+        int migrated = migration.migrate(storedItems);
+        if (migrated > 0) {
+            db.commit();
+            logger.info("Migrated {} MapDB entries to the binary format", migrated);
+        }
+        // entries which couldn't be migrated keep their JSON string until they are replaced by a new state
+        @SuppressWarnings("unchecked")
+        Map<String, byte[]> binaryMap = (Map<String, byte[]>) (Map<String, ?>) storedItems;
+        map = binaryMap;
+        loadCache(storedItems);
+
+        int commitBatchSize = getIntConfig(config, CONFIG_COMMIT_BATCH_SIZE, DEFAULT_COMMIT_BATCH_SIZE);
+        long commitDelay = getIntConfig(config, CONFIG_COMMIT_DELAY, (int) DEFAULT_COMMIT_DELAY_MILLIS);
+        commitPipeline = new MapDbCommitPipeline<>(db, map, serializer::serialize, threadPool, commitBatchSize,
+                commitDelay);
+
+        historySize = Math.max(0, getIntConfig(config, CONFIG_HISTORY_SIZE, DEFAULT_HISTORY_SIZE));
+        history.clear();
+        if (historySize > 0) {
+            Map<String, byte[]> historyMap = db.createTreeMap("itemHistory").makeOrGet();
+            loadHistory(historyMap);
+            historyPipeline = new MapDbCommitPipeline<>(db, historyMap, MapDbTimeSeries::toBytes, threadPool,
+                    commitBatchSize, commitDelay);
+        }
+        logger.debug("MapDB persistence service is now activated (commit batch size {}, delay {} ms, history size {})",
+                commitBatchSize, commitDelay, historySize);
     }
 
+    @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        if (commitPipeline != null) {
+            commitPipeline.close();
+        }
+        if (historyPipeline != null) {
+            historyPipeline.close();
+            historyPipeline = null;
+        }
+        historySize = 0;
         if (db != null) {
             db.close();
         }
-        threadPool.shutdown();
+    }
+
+    /**
+     * @return The counters of the commit pipelines, to check whether the commit batch size and delay fit the load
+     */
+    public String getStatistics() {
+        MapDbCommitPipeline<MapDbItem, byte[]> localCommitPipeline = commitPipeline;
+        MapDbCommitPipeline<MapDbTimeSeries, byte[]> localHistoryPipeline = historyPipeline;
+        return String.format("states: %s%nhistory: %s",
+                localCommitPipeline != null ? localCommitPipeline : "not activated",
+                localHistoryPipeline != null ? localHistoryPipeline : "disabled");
+    }
+
+    private void loadCache(Map<String, Object> storedItems) {
+        cache.clear();
+        for (Map.Entry<String, Object> entry : storedItems.entrySet()) {
+            if (entry.getValue() instanceof byte[]) {
+                deserialize((byte[]) entry.getValue()).ifPresent(item -> cache.put(entry.getKey(), item));
+            } else {
+                logger.debug("Skipping stored state of '{}' which is not migrated yet", entry.getKey());
+            }
+        }
+        logger.debug("Loaded {} items from MapDB database", cache.size());
+    }
+
+    private void loadHistory(Map<String, byte[]> historyMap) {
+        for (Map.Entry<String, byte[]> entry : historyMap.entrySet()) {
+            MapDbTimeSeries series = MapDbTimeSeries.fromBytes(entry.getKey(), historySize, entry.getValue());
+            if (series == null) {
+                logger.warn("Couldn't load stored history of '{}'", entry.getKey());
+            } else {
+                history.put(entry.getKey(), series);
+            }
+        }
+        logger.debug("Loaded history of {} items from MapDB database", history.size());
+    }
+
+    private int getIntConfig(@Nullable Map<String, Object> config, String key, int defaultValue) {
+        Object value = config == null ? null : config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for configuration parameter '{}', using default {}", value, key,
+                    defaultValue);
+            return defaultValue;
+        }
     }
 
     @Override
@@ -117,10 +228,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream()
-                .map(this::deserialize)
-                .flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo>toSet());
+        return new HashSet<>(cache.values());
     }
 
     @Override
@@ -145,46 +253,37 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(alias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
+        cache.put(alias, mItem);
+        commitPipeline.enqueue(alias, mItem);
+        if (historySize > 0 && MapDbTimeSeries.isSupported(state)) {
+            MapDbTimeSeries series = history.computeIfAbsent(alias, name -> new MapDbTimeSeries(name, historySize));
+            series.add(mItem.getTimestamp().getTime(), state);
+            historyPipeline.enqueue(alias, series);
+        }
         logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
-            return Collections.emptyList();
+        if (historySize > 0) {
+            MapDbTimeSeries series = history.get(filter.getItemName());
+            if (series != null) {
+                return series.query(filter);
+            }
         }
-        Optional<MapDbItem> item = deserialize(json);
-        if (!item.isPresent()) {
+        MapDbItem item = cache.get(filter.getItemName());
+        if (item == null) {
             return Collections.emptyList();
         }
-        return Collections.singletonList(item.get());
-    }
-
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+        return Collections.singletonList(item);
     }
 
-    private Optional<MapDbItem> deserialize(String json) {
-        MapDbItem item = mapper.<MapDbItem>fromJson(json, MapDbItem.class);
+    private Optional<MapDbItem> deserialize(byte[] data) {
+        MapDbItem item = serializer.deserialize(data);
         if (item == null || !item.isValid()) {
             logger.warn("Deserialized invalid item: {}", item);
             return Optional.empty();
         }
         return Optional.of(item);
     }
-
-    private void commit() {
-        threadPool.submit(() -> db.commit());
-    }
-
-    private static <T> Stream<T> streamOptional(Optional<T> opt) {
-        if (!opt.isPresent()) {
-            return Stream.empty();
-        }
-        return Stream.of(opt.get());
-    }
 }
@@ -0,0 +1,382 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * Fixed size ring buffer of (timestamp, state) pairs of a single item.
+ *
+ * Only states which can be represented as a double are kept, the values are stored in primitive arrays and
+ * timestamps are kept in ascending order, so time ranges can be looked up with a binary search. Quantities are kept in
+ * the unit of the first value of the series.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbTimeSeries {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte TYPE_NONE = 0;
+    private static final byte TYPE_DECIMAL = 1;
+    private static final byte TYPE_PERCENT = 2;
+    private static final byte TYPE_ONOFF = 3;
+    private static final byte TYPE_OPENCLOSED = 4;
+    private static final byte TYPE_QUANTITY = 5;
+
+    private final String name;
+    private byte type = TYPE_NONE;
+    private @Nullable Unit<?> unit;
+    private long[] timestamps;
+    private double[] values;
+    private int start;
+    private int size;
+
+    /**
+     * Creates an empty time series
+     *
+     * @param name alias of the item
+     * @param capacity maximum number of entries kept
+     */
+    public MapDbTimeSeries(String name, int capacity) {
+        this.name = name;
+        this.timestamps = new long[Math.max(1, capacity)];
+        this.values = new double[timestamps.length];
+    }
+
+    /**
+     * Checks whether a state can be kept in a time series
+     *
+     * @param state state to check
+     * @return true if the state is supported
+     */
+    public static boolean isSupported(State state) {
+        return typeOf(state) != TYPE_NONE;
+    }
+
+    private static byte typeOf(State state) {
+        Class<?> stateClass = state.getClass();
+        if (stateClass == DecimalType.class) {
+            return TYPE_DECIMAL;
+        } else if (stateClass == PercentType.class) {
+            return TYPE_PERCENT;
+        } else if (state instanceof OnOffType) {
+            return TYPE_ONOFF;
+        } else if (state instanceof OpenClosedType) {
+            return TYPE_OPENCLOSED;
+        } else if (state instanceof QuantityType) {
+            return TYPE_QUANTITY;
+        }
+        return TYPE_NONE;
+    }
+
+    /**
+     * Converts a state into the value kept in this series
+     *
+     * @return value of the state or NaN if the state cannot be represented in this series
+     */
+    private double toDouble(State state) {
+        if (state instanceof QuantityType) {
+            QuantityType<?> quantity = (QuantityType<?>) state;
+            Unit<?> seriesUnit = unit;
+            if (seriesUnit != null) {
+                quantity = quantity.toUnit(seriesUnit);
+                if (quantity == null) {
+                    return Double.NaN;
+                }
+            }
+            return quantity.doubleValue();
+        } else if (state instanceof DecimalType) {
+            return ((DecimalType) state).doubleValue();
+        } else if (state instanceof OnOffType || state instanceof OpenClosedType) {
+            return state == OnOffType.ON || state == OpenClosedType.OPEN ? 1 : 0;
+        }
+        return Double.NaN;
+    }
+
+    private static <Q extends Quantity<Q>> QuantityType<Q> toQuantity(double value, Unit<Q> unit) {
+        return new QuantityType<>(BigDecimal.valueOf(value), unit);
+    }
+
+    private State toState(double value) {
+        switch (type) {
+            case TYPE_QUANTITY:
+                Unit<?> seriesUnit = unit;
+                return seriesUnit != null ? toQuantity(value, seriesUnit) : new DecimalType(value);
+            case TYPE_PERCENT:
+                return new PercentType(BigDecimal.valueOf(value));
+            case TYPE_ONOFF:
+                return value != 0 ? OnOffType.ON : OnOffType.OFF;
+            case TYPE_OPENCLOSED:
+                return value != 0 ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            default:
+                return new DecimalType(value);
+        }
+    }
+
+    /**
+     * Appends a state. If the buffer is full, the oldest entry is overwritten. If the type of the state differs
+     * from the states kept so far, or a quantity cannot be converted into the unit of the series, the series is
+     * restarted.
+     *
+     * @param timestamp time of the state, values older than the latest entry are recorded at the latest time
+     * @param state state to add, must be {@link #isSupported(State) supported}
+     */
+    public synchronized void add(long timestamp, State state) {
+        byte stateType = typeOf(state);
+        if (stateType == TYPE_NONE) {
+            throw new IllegalArgumentException("Unsupported state type " + state.getClass().getName());
+        }
+        double value = stateType == type ? toDouble(state) : Double.NaN;
+        if (Double.isNaN(value)) {
+            type = stateType;
+            unit = state instanceof QuantityType ? ((QuantityType<?>) state).getUnit() : null;
+            start = 0;
+            size = 0;
+            value = toDouble(state);
+        }
+        int capacity = timestamps.length;
+        if (size > 0) {
+            timestamp = Math.max(timestamp, timestamps[physical(size - 1)]);
+        }
+        int index;
+        if (size < capacity) {
+            index = physical(size);
+            size++;
+        } else {
+            index = start;
+            start = (start + 1) % capacity;
+        }
+        timestamps[index] = timestamp;
+        values[index] = value;
+    }
+
+    /**
+     * Changes the number of entries kept, keeping the latest ones.
+     *
+     * @param capacity new capacity
+     */
+    public synchronized void resize(int capacity) {
+        capacity = Math.max(1, capacity);
+        if (capacity == timestamps.length) {
+            return;
+        }
+        int newSize = Math.min(size, capacity);
+        long[] newTimestamps = new long[capacity];
+        double[] newValues = new double[capacity];
+        for (int i = 0; i < newSize; i++) {
+            int index = physical(size - newSize + i);
+            newTimestamps[i] = timestamps[index];
+            newValues[i] = values[index];
+        }
+        timestamps = newTimestamps;
+        values = newValues;
+        start = 0;
+        size = newSize;
+    }
+
+    /**
+     * @return number of entries in the series
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the entries matching the given filter. Time range, ordering, paging and comparisons against numeric,
+     * quantity, on/off and open/closed states are taken into account. A comparison against a state which cannot be
+     * represented in this series matches nothing.
+     *
+     * @param filter filter to apply
+     * @return matching entries
+     */
+    public synchronized List<HistoricItem> query(FilterCriteria filter) {
+        Date beginDate = filter.getBeginDate();
+        Date endDate = filter.getEndDate();
+        int from = beginDate == null ? 0 : lowerBound(beginDate.getTime());
+        int to = endDate == null ? size : upperBound(endDate.getTime());
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+
+        State filterState = filter.getState();
+        boolean compare = filterState != null;
+        double filterValue = filterState != null ? toDouble(filterState) : 0;
+        if (compare && Double.isNaN(filterValue)) {
+            return Collections.emptyList();
+        }
+
+        long skip = (long) filter.getPageNumber() * filter.getPageSize();
+        int limit = filter.getPageSize();
+        boolean ascending = filter.getOrdering() == Ordering.ASCENDING;
+        List<HistoricItem> result = new ArrayList<>(Math.min(limit, to - from));
+        for (int n = 0; n < to - from && result.size() < limit; n++) {
+            int index = physical(ascending ? from + n : to - 1 - n);
+            if (compare && !matches(values[index], filter.getOperator(), filterValue)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(toState(values[index]));
+            item.setTimestamp(new Date(timestamps[index]));
+            result.add(item);
+        }
+        return result;
+    }
+
+    private static boolean matches(double value, Operator operator, double filterValue) {
+        int comparison = Double.compare(value, filterValue);
+        switch (operator) {
+            case EQ:
+                return comparison == 0;
+            case NEQ:
+                return comparison != 0;
+            case GT:
+                return comparison > 0;
+            case LT:
+                return comparison < 0;
+            case GTE:
+                return comparison >= 0;
+            case LTE:
+                return comparison <= 0;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return logical index of the first entry with a timestamp not before the given time
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[physical(mid)] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return logical index of the first entry with a timestamp after the given time
+     */
+    private int upperBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[physical(mid)] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int physical(int logicalIndex) {
+        return (start + logicalIndex) % timestamps.length;
+    }
+
+    /**
+     * Encodes the series for storage in the database
+     *
+     * @return binary representation of the series
+     */
+    public synchronized byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + size * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(type);
+            Unit<?> seriesUnit = unit;
+            // the unit is kept as quantity of one, which can be parsed again
+            out.writeUTF(seriesUnit != null ? toQuantity(1, seriesUnit).toString() : "");
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                int index = physical(i);
+                out.writeLong(timestamps[index]);
+                out.writeDouble(values[index]);
+            }
+        } catch (IOException e) {
+            // cannot happen with an in-memory stream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a series encoded by {@link #toBytes()}
+     *
+     * @param name alias of the item
+     * @param capacity maximum number of entries kept, older entries are dropped if there are more
+     * @param data binary representation of the series
+     * @return decoded series or null if the data could not be decoded
+     */
+    public static @Nullable MapDbTimeSeries fromBytes(String name, int capacity, byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                return null;
+            }
+            byte type = in.readByte();
+            String unit = in.readUTF();
+            int count = in.readInt();
+            MapDbTimeSeries series = new MapDbTimeSeries(name, Math.max(capacity, count));
+            series.type = type;
+            series.unit = unit.isEmpty() ? null : QuantityType.valueOf(unit).getUnit();
+            for (int i = 0; i < count; i++) {
+                series.timestamps[i] = in.readLong();
+                series.values[i] = in.readDouble();
+            }
+            series.size = count;
+            series.resize(capacity);
+            return series;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
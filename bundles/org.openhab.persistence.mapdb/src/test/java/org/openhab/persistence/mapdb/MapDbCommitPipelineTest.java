@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.persistence.mapdb.internal.MapDbCommitPipeline;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbCommitPipelineTest {
+    private ScheduledExecutorService scheduler;
+    private DB db;
+    private Map<String, String> map;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        db = DBMaker.newMemoryDB().make();
+        map = db.createTreeMap("itemStore").makeOrGet();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        db.close();
+    }
+
+    @Test
+    public void updatesOfTheSameAliasShouldBeCoalesced() {
+        MapDbCommitPipeline<String, String> pipeline = new MapDbCommitPipeline<>(db, map, s -> s, scheduler, 100,
+                60000);
+        pipeline.enqueue("item", "a");
+        pipeline.enqueue("item", "b");
+        pipeline.enqueue("other", "c");
+
+        assertThat(map.isEmpty(), is(true));
+        assertThat(pipeline.getPending("item"), is(equalTo("b")));
+        assertThat(pipeline.getPendingUpdates(), is(2));
+        assertThat(pipeline.getCoalescedUpdates(), is(1L));
+
+        pipeline.flush();
+
+        assertThat(map.get("item"), is(equalTo("b")));
+        assertThat(map.get("other"), is(equalTo("c")));
+        assertThat(pipeline.getPendingUpdates(), is(0));
+        assertThat(pipeline.getCommits(), is(1L));
+        assertThat(pipeline.getAverageBatchSize(), is(2.0));
+    }
+
+    @Test
+    public void fullBatchShouldBeCommittedWithoutWaitingForTheDelay() throws InterruptedException {
+        MapDbCommitPipeline<String, String> pipeline = new MapDbCommitPipeline<>(db, map, s -> s, scheduler, 2,
+                60000);
+        pipeline.enqueue("a", "1");
+        pipeline.enqueue("b", "2");
+
+        for (int i = 0; i < 100 && pipeline.getCommits() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(pipeline.getCommits(), is(1L));
+        assertThat(map.size(), is(2));
+    }
+
+    @Test
+    public void updatesEnqueuedDuringFlushShouldBeCommitted() throws InterruptedException {
+        CountDownLatch encoding = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        MapDbCommitPipeline<String, String> pipeline = new MapDbCommitPipeline<>(db, map, s -> {
+            if ("slow".equals(s)) {
+                encoding.countDown();
+                try {
+                    proceed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return s;
+        }, scheduler, 100, 10);
+        pipeline.enqueue("a", "slow");
+        assertThat(encoding.await(1, TimeUnit.SECONDS), is(true));
+
+        // the flush of the first batch is running
+        pipeline.enqueue("b", "fast");
+        proceed.countDown();
+
+        for (int i = 0; i < 100 && pipeline.getCommits() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(pipeline.getCommits(), is(2L));
+        assertThat(map.get("a"), is(equalTo("slow")));
+        assertThat(map.get("b"), is(equalTo("fast")));
+        assertThat(pipeline.getPendingUpdates(), is(0));
+    }
+
+    @Test
+    public void closeShouldFlushPendingUpdates() {
+        MapDbCommitPipeline<String, String> pipeline = new MapDbCommitPipeline<>(db, map, s -> s, scheduler, 100,
+                60000);
+        pipeline.enqueue("item", "a");
+        pipeline.close();
+
+        assertThat(map.get("item"), is(equalTo("a")));
+        assertThat(pipeline.getPendingUpdates(), is(0));
+    }
+}
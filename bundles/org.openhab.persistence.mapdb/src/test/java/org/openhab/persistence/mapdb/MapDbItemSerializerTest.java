@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemSerializer;
+import org.openhab.persistence.mapdb.internal.StateTypeAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbItemSerializerTest {
+    MapDbItemSerializer serializer = new MapDbItemSerializer();
+
+    Gson mapper = new GsonBuilder()
+        .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
+        .create();
+
+    @Test
+    public void readWriteRoundtripShouldRecreateTheWrittenState() {
+        assertThat(roundtrip(OnOffType.ON), is(equalTo(OnOffType.ON)));
+        assertThat(roundtrip(OnOffType.OFF), is(equalTo(OnOffType.OFF)));
+        assertThat(roundtrip(new DecimalType("-12.345")), is(equalTo(new DecimalType("-12.345"))));
+        assertThat(roundtrip(new DecimalType(new BigDecimal("1234567890123456789012345.6789"))),
+                is(equalTo(new DecimalType(new BigDecimal("1234567890123456789012345.6789")))));
+        assertThat(roundtrip(PercentType.HUNDRED), is(equalTo(PercentType.HUNDRED)));
+        assertThat(roundtrip(HSBType.GREEN), is(equalTo(HSBType.GREEN)));
+        assertThat(roundtrip(new DateTimeType("2019-10-12T07:20:39.123+02:00")),
+                is(equalTo(new DateTimeType("2019-10-12T07:20:39.123+02:00"))));
+        assertThat(roundtrip(StringType.valueOf("test")), is(equalTo(StringType.valueOf("test"))));
+        assertThat(roundtrip(OpenClosedType.CLOSED), is(equalTo(OpenClosedType.CLOSED)));
+    }
+
+    @Test
+    public void nameAndTimestampShouldBeKept() {
+        MapDbItem item = item(OnOffType.ON);
+        MapDbItem result = serializer.deserialize(serializer.serialize(item));
+
+        assertThat(result.getName(), is(equalTo(item.getName())));
+        assertThat(result.getTimestamp(), is(equalTo(item.getTimestamp())));
+    }
+
+    @Test
+    public void binaryEncodingShouldBeSmallerThanJson() {
+        MapDbItem item = item(new DecimalType("21.5"));
+
+        assertThat(serializer.serialize(item).length < mapper.toJson(item).length(), is(true));
+    }
+
+    @Test
+    public void invalidDataShouldNotBeDeserialized() {
+        assertThat(serializer.deserialize(new byte[] { 42 }), is(nullValue()));
+        assertThat(serializer.deserialize(new byte[0]), is(nullValue()));
+    }
+
+    private MapDbItem item(State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1570857639123L));
+        return item;
+    }
+
+    private State roundtrip(State state) {
+        return serializer.deserialize(serializer.serialize(item(state))).getState();
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemSerializer;
+import org.openhab.persistence.mapdb.internal.MapDbJsonMigration;
+import org.openhab.persistence.mapdb.internal.StateTypeAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbJsonMigrationTest {
+    MapDbItemSerializer serializer = new MapDbItemSerializer();
+
+    MapDbJsonMigration migration = new MapDbJsonMigration(serializer);
+
+    Gson mapper = new GsonBuilder()
+        .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
+        .create();
+
+    @Test
+    public void gsonWrittenEntriesShouldBeConverted() {
+        Map<String, Object> storedItems = new HashMap<>();
+        storedItems.put("switch", mapper.toJson(item("switch", OnOffType.ON)));
+        storedItems.put("number", mapper.toJson(item("number", new DecimalType("21.5"))));
+        storedItems.put("string", mapper.toJson(item("string", StringType.valueOf("test"))));
+
+        assertThat(migration.migrate(storedItems), is(3));
+
+        assertMigrated(storedItems, "switch", OnOffType.ON);
+        assertMigrated(storedItems, "number", new DecimalType("21.5"));
+        assertMigrated(storedItems, "string", StringType.valueOf("test"));
+    }
+
+    @Test
+    public void binaryEntriesShouldBeKept() {
+        byte[] data = serializer.serialize(item("switch", OnOffType.OFF));
+        Map<String, Object> storedItems = new HashMap<>();
+        storedItems.put("switch", data);
+
+        assertThat(migration.migrate(storedItems), is(0));
+        assertThat(storedItems.get("switch"), is(sameInstance(data)));
+    }
+
+    @Test
+    public void entriesWhichCannotBeMigratedShouldBeKept() {
+        String unparseable = "{\"name\":\"broken\",";
+        String unknownState = "{\"name\":\"unknown\",\"state\":\"org.example.UnknownType@@@1\","
+                + "\"timestamp\":\"Oct 12, 2019 7:20:39 AM\"}";
+        Map<String, Object> storedItems = new HashMap<>();
+        storedItems.put("broken", unparseable);
+        storedItems.put("unknown", unknownState);
+        storedItems.put("switch", mapper.toJson(item("switch", OnOffType.ON)));
+
+        assertThat(migration.migrate(storedItems), is(1));
+
+        assertThat(storedItems.get("broken"), is(equalTo(unparseable)));
+        assertThat(storedItems.get("unknown"), is(equalTo(unknownState)));
+        assertMigrated(storedItems, "switch", OnOffType.ON);
+    }
+
+    private void assertMigrated(Map<String, Object> storedItems, String name, State state) {
+        Object value = storedItems.get(name);
+        assertThat(value, is(instanceOf(byte[].class)));
+
+        MapDbItem item = serializer.deserialize((byte[]) value);
+        assertThat(item.getName(), is(equalTo(name)));
+        assertThat(item.getState(), is(equalTo(state)));
+        assertThat(item.getTimestamp(), is(equalTo(new Date(1570857639000L))));
+    }
+
+    private MapDbItem item(String name, State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(state);
+        // Gson writes dates with second precision
+        item.setTimestamp(new Date(1570857639000L));
+        return item;
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.number.IsCloseTo.closeTo;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.unit.SIUnits;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbTimeSeries;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbTimeSeriesTest {
+
+    @Test
+    public void oldestEntriesShouldBeOverwrittenWhenFull() {
+        MapDbTimeSeries series = series(3, 5);
+
+        assertThat(series.size(), is(3));
+        assertThat(values(series.query(new FilterCriteria().setOrdering(Ordering.ASCENDING))), is(asList(2, 3, 4)));
+    }
+
+    @Test
+    public void queryShouldHonorTimeRangeOrderingAndPaging() {
+        MapDbTimeSeries series = series(10, 10);
+
+        FilterCriteria range = new FilterCriteria().setBeginDate(new Date(2000)).setEndDate(new Date(5000));
+        assertThat(values(series.query(range)), is(asList(5, 4, 3, 2)));
+
+        FilterCriteria page = new FilterCriteria().setOrdering(Ordering.ASCENDING).setPageSize(3).setPageNumber(1);
+        assertThat(values(series.query(page)), is(asList(3, 4, 5)));
+
+        FilterCriteria compare = new FilterCriteria().setOperator(Operator.GTE).setState(new DecimalType(7));
+        assertThat(values(series.query(compare)), is(asList(9, 8, 7)));
+    }
+
+    @Test
+    public void changedStateTypeShouldRestartTheSeries() {
+        MapDbTimeSeries series = series(10, 4);
+        series.add(10000, OnOffType.ON);
+
+        List<HistoricItem> result = series.query(new FilterCriteria());
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getState(), is(equalTo(OnOffType.ON)));
+        assertThat(MapDbTimeSeries.isSupported(StringType.valueOf("test")), is(false));
+    }
+
+    @Test
+    public void encodingRoundtripShouldKeepTheLatestEntries() {
+        MapDbTimeSeries series = series(10, 6);
+
+        MapDbTimeSeries result = MapDbTimeSeries.fromBytes("item", 4, series.toBytes());
+
+        assertThat(result.size(), is(4));
+        assertThat(values(result.query(new FilterCriteria().setOrdering(Ordering.ASCENDING))), is(asList(2, 3, 4, 5)));
+    }
+
+    @Test
+    public void quantitiesShouldBeKeptInTheUnitOfTheSeries() {
+        MapDbTimeSeries series = new MapDbTimeSeries("item", 10);
+        series.add(1000, new QuantityType<>("20 °C"));
+        series.add(2000, new QuantityType<>("77 °F"));
+        series.add(3000, new QuantityType<>("30 °C"));
+
+        List<HistoricItem> result = series.query(new FilterCriteria().setOrdering(Ordering.ASCENDING));
+        assertThat(result.size(), is(3));
+        assertThat(result.get(0).getState(), is(equalTo(new QuantityType<>("20 °C"))));
+        assertThat(((QuantityType<?>) result.get(1).getState()).getUnit(), is(equalTo(SIUnits.CELSIUS)));
+        assertThat(((QuantityType<?>) result.get(1).getState()).doubleValue(), is(closeTo(25, 0.001)));
+
+        FilterCriteria compare = new FilterCriteria().setOperator(Operator.GT).setState(new QuantityType<>("70 °F"));
+        assertThat(series.query(compare).size(), is(2));
+
+        MapDbTimeSeries decoded = MapDbTimeSeries.fromBytes("item", 10, series.toBytes());
+        assertThat(decoded.query(compare).size(), is(2));
+        assertThat(decoded.query(new FilterCriteria()).get(0).getState(), is(equalTo(new QuantityType<>("30 °C"))));
+    }
+
+    @Test
+    public void incompatibleQuantityShouldRestartTheSeries() {
+        MapDbTimeSeries series = new MapDbTimeSeries("item", 10);
+        series.add(1000, new QuantityType<>("20 °C"));
+        series.add(2000, new QuantityType<>("5 m"));
+
+        List<HistoricItem> result = series.query(new FilterCriteria());
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getState(), is(equalTo(new QuantityType<>("5 m"))));
+    }
+
+    @Test
+    public void unsupportedFilterStateShouldMatchNothing() {
+        MapDbTimeSeries series = series(10, 4);
+
+        FilterCriteria compare = new FilterCriteria().setOperator(Operator.NEQ).setState(StringType.valueOf("1"));
+        assertThat(series.query(compare).isEmpty(), is(true));
+
+        series = new MapDbTimeSeries("item", 10);
+        series.add(1000, new QuantityType<>("20 °C"));
+        compare = new FilterCriteria().setOperator(Operator.NEQ).setState(new QuantityType<>("5 m"));
+        assertThat(series.query(compare).isEmpty(), is(true));
+    }
+
+    private MapDbTimeSeries series(int capacity, int count) {
+        MapDbTimeSeries series = new MapDbTimeSeries("item", capacity);
+        for (int i = 0; i < count; i++) {
+            series.add(i * 1000, new DecimalType(i));
+        }
+        return series;
+    }
+
+    private List<Integer> values(List<HistoricItem> items) {
+        return items.stream().map(item -> ((DecimalType) item.getState()).intValue()).collect(Collectors.toList());
+    }
+
+    private List<Integer> asList(Integer... values) {
+        return Arrays.asList(values);
+    }
+}
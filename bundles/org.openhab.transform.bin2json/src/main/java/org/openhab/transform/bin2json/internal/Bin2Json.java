@@ -12,10 +12,12 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.function.Consumer;
 
 import org.eclipse.smarthome.core.util.HexUtils;
 import org.slf4j.Logger;
@@ -26,23 +28,30 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import com.igormaznitsa.jbbp.JBBPParser;
 import com.igormaznitsa.jbbp.exceptions.JBBPException;
+import com.igormaznitsa.jbbp.io.JBBPBitInputStream;
 import com.igormaznitsa.jbbp.model.JBBPAbstractArrayField;
 import com.igormaznitsa.jbbp.model.JBBPAbstractField;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayBit;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayBoolean;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayByte;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayDouble;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayFloat;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayInt;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayLong;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayShort;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayString;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayStruct;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayUByte;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayUShort;
 import com.igormaznitsa.jbbp.model.JBBPFieldBit;
 import com.igormaznitsa.jbbp.model.JBBPFieldBoolean;
 import com.igormaznitsa.jbbp.model.JBBPFieldByte;
+import com.igormaznitsa.jbbp.model.JBBPFieldDouble;
+import com.igormaznitsa.jbbp.model.JBBPFieldFloat;
 import com.igormaznitsa.jbbp.model.JBBPFieldInt;
 import com.igormaznitsa.jbbp.model.JBBPFieldLong;
 import com.igormaznitsa.jbbp.model.JBBPFieldShort;
+import com.igormaznitsa.jbbp.model.JBBPFieldString;
 import com.igormaznitsa.jbbp.model.JBBPFieldStruct;
 import com.igormaznitsa.jbbp.model.JBBPFieldUByte;
 import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
@@ -137,6 +146,59 @@ public class Bin2Json {
         }
     }
 
+    /**
+     * Convert consecutive frames in hexadecimal string format to a JSON array with one object per frame.
+     *
+     * @param hexString Data in hexadecimal string format. Example data: 03FA04FB
+     * @return JSON array as string, e.g. <code>[{"a":3,"b":-6},{"a":4,"b":-5}]</code>
+     * @throws ConversionException
+     */
+    public String convertFrames(String hexString) throws ConversionException {
+        final byte[] data;
+        try {
+            data = HexUtils.hexToBytes(hexString);
+        } catch (IllegalArgumentException e) {
+            throw new ConversionException(String.format("Illegal hexstring , reason: %s", e.getMessage(), e));
+        }
+        final StringBuilder frames = new StringBuilder(data.length * 8 + 2).append('[');
+        convert(new ByteArrayInputStream(data), frame -> {
+            if (frames.length() > 1) {
+                frames.append(',');
+            }
+            frames.append(frame);
+        });
+        return frames.append(']').toString();
+    }
+
+    /**
+     * Convert consecutive frames from {@link InputStream} until the end of the stream. Each frame is written directly
+     * as JSON string, without building a {@link JsonObject} tree, and passed to the consumer before the next frame is
+     * parsed.
+     *
+     * @param inputStream stream of frames
+     * @param frameConsumer receives the JSON string of every frame
+     * @return number of converted frames
+     * @throws ConversionException
+     */
+    public int convert(InputStream inputStream, Consumer<String> frameConsumer) throws ConversionException {
+        final JBBPBitInputStream in = new JBBPBitInputStream(inputStream);
+        final StringBuilder json = new StringBuilder(256);
+        int frames = 0;
+        try {
+            while (in.hasAvailableData()) {
+                json.setLength(0);
+                appendStruct(json, parser.parse(in));
+                frameConsumer.accept(json.toString());
+                frames++;
+            }
+            return frames;
+        } catch (IOException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        } catch (JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+    }
+
     private JsonObject convert(JBBPFieldStruct data) throws ConversionException {
         try {
             LocalDateTime start = LocalDateTime.now();
@@ -173,6 +235,14 @@ public class Bin2Json {
                 for (final byte b : ((JBBPFieldArrayByte) field).getArray()) {
                     jsonArray.add(new JsonPrimitive(b));
                 }
+            } else if (field instanceof JBBPFieldArrayDouble) {
+                for (final double b : ((JBBPFieldArrayDouble) field).getArray()) {
+                    jsonArray.add(new JsonPrimitive(b));
+                }
+            } else if (field instanceof JBBPFieldArrayFloat) {
+                for (final float b : ((JBBPFieldArrayFloat) field).getArray()) {
+                    jsonArray.add(new JsonPrimitive(b));
+                }
             } else if (field instanceof JBBPFieldArrayInt) {
                 for (final int b : ((JBBPFieldArrayInt) field).getArray()) {
                     jsonArray.add(new JsonPrimitive(b));
@@ -185,6 +255,10 @@ public class Bin2Json {
                 for (final short b : ((JBBPFieldArrayShort) field).getArray()) {
                     jsonArray.add(new JsonPrimitive(b));
                 }
+            } else if (field instanceof JBBPFieldArrayString) {
+                for (final String b : ((JBBPFieldArrayString) field).getArray()) {
+                    jsonArray.add(b);
+                }
             } else if (field instanceof JBBPFieldArrayStruct) {
                 final JBBPFieldArrayStruct array = (JBBPFieldArrayStruct) field;
                 for (int i = 0; i < array.size(); i++) {
@@ -209,12 +283,18 @@ public class Bin2Json {
                 jsn.addProperty(fieldName, ((JBBPFieldBoolean) field).getAsBool());
             } else if (field instanceof JBBPFieldByte) {
                 jsn.addProperty(fieldName, ((JBBPFieldByte) field).getAsInt());
+            } else if (field instanceof JBBPFieldDouble) {
+                jsn.addProperty(fieldName, ((JBBPFieldDouble) field).getAsDouble());
+            } else if (field instanceof JBBPFieldFloat) {
+                jsn.addProperty(fieldName, ((JBBPFieldFloat) field).getAsFloat());
             } else if (field instanceof JBBPFieldInt) {
                 jsn.addProperty(fieldName, ((JBBPFieldInt) field).getAsInt());
             } else if (field instanceof JBBPFieldLong) {
                 jsn.addProperty(fieldName, ((JBBPFieldLong) field).getAsLong());
             } else if (field instanceof JBBPFieldShort) {
                 jsn.addProperty(fieldName, ((JBBPFieldShort) field).getAsInt());
+            } else if (field instanceof JBBPFieldString) {
+                jsn.addProperty(fieldName, ((JBBPFieldString) field).getAsString());
             } else if (field instanceof JBBPFieldStruct) {
                 final JBBPFieldStruct struct = (JBBPFieldStruct) field;
                 final JsonObject obj = new JsonObject();
@@ -236,4 +316,189 @@ public class Bin2Json {
         }
         return jsn;
     }
+
+    /**
+     * Writes the fields of a struct in the same format as {@link #convertToJSon(JsonObject, JBBPAbstractField)}
+     */
+    private void appendStruct(final StringBuilder json, final JBBPFieldStruct struct) throws ConversionException {
+        final JBBPAbstractField[] fields = struct.getArray();
+        int unnamed = 0;
+        for (final JBBPAbstractField f : fields) {
+            if (f.getFieldName() == null) {
+                unnamed++;
+            }
+        }
+        if (unnamed > 1) {
+            // Gson keeps only the last of the fields sharing the name "nonamed"
+            json.append(convertToJSon(struct));
+            return;
+        }
+        json.append('{');
+        boolean first = true;
+        for (final JBBPAbstractField f : fields) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendField(json, f);
+        }
+        json.append('}');
+    }
+
+    private void appendField(final StringBuilder json, final JBBPAbstractField field) throws ConversionException {
+        final String fieldName = field.getFieldName() == null ? "nonamed" : field.getFieldName();
+        appendString(json, fieldName).append(':');
+
+        if (field instanceof JBBPAbstractArrayField) {
+            json.append('[');
+            if (field instanceof JBBPFieldArrayBit) {
+                final byte[] array = ((JBBPFieldArrayBit) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i]);
+                }
+            } else if (field instanceof JBBPFieldArrayBoolean) {
+                final boolean[] array = ((JBBPFieldArrayBoolean) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i]);
+                }
+            } else if (field instanceof JBBPFieldArrayByte) {
+                final byte[] array = ((JBBPFieldArrayByte) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i]);
+                }
+            } else if (field instanceof JBBPFieldArrayDouble) {
+                final double[] array = ((JBBPFieldArrayDouble) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i]);
+                }
+            } else if (field instanceof JBBPFieldArrayFloat) {
+                final float[] array = ((JBBPFieldArrayFloat) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i]);
+                }
+            } else if (field instanceof JBBPFieldArrayInt) {
+                final int[] array = ((JBBPFieldArrayInt) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i]);
+                }
+            } else if (field instanceof JBBPFieldArrayLong) {
+                final long[] array = ((JBBPFieldArrayLong) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i]);
+                }
+            } else if (field instanceof JBBPFieldArrayShort) {
+                final short[] array = ((JBBPFieldArrayShort) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i]);
+                }
+            } else if (field instanceof JBBPFieldArrayString) {
+                final String[] array = ((JBBPFieldArrayString) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendString(appendSeparator(json, i), array[i]);
+                }
+            } else if (field instanceof JBBPFieldArrayStruct) {
+                final JBBPFieldArrayStruct array = (JBBPFieldArrayStruct) field;
+                for (int i = 0; i < array.size(); i++) {
+                    // every element is wrapped into an object, as done by convertToJSon
+                    appendSeparator(json, i).append('{');
+                    appendField(json, array.getElementAt(i));
+                    json.append('}');
+                }
+            } else if (field instanceof JBBPFieldArrayUByte) {
+                final byte[] array = ((JBBPFieldArrayUByte) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i] & 0xFF);
+                }
+            } else if (field instanceof JBBPFieldArrayUShort) {
+                final short[] array = ((JBBPFieldArrayUShort) field).getArray();
+                for (int i = 0; i < array.length; i++) {
+                    appendSeparator(json, i).append(array[i] & 0xFFFF);
+                }
+            } else {
+                throw new ConversionException(String.format("Unexpected field type '%s'", field));
+            }
+            json.append(']');
+        } else if (field instanceof JBBPFieldBit) {
+            json.append(((JBBPFieldBit) field).getAsInt());
+        } else if (field instanceof JBBPFieldBoolean) {
+            json.append(((JBBPFieldBoolean) field).getAsBool());
+        } else if (field instanceof JBBPFieldByte) {
+            json.append(((JBBPFieldByte) field).getAsInt());
+        } else if (field instanceof JBBPFieldDouble) {
+            json.append(((JBBPFieldDouble) field).getAsDouble());
+        } else if (field instanceof JBBPFieldFloat) {
+            json.append(((JBBPFieldFloat) field).getAsFloat());
+        } else if (field instanceof JBBPFieldInt) {
+            json.append(((JBBPFieldInt) field).getAsInt());
+        } else if (field instanceof JBBPFieldLong) {
+            json.append(((JBBPFieldLong) field).getAsLong());
+        } else if (field instanceof JBBPFieldShort) {
+            json.append(((JBBPFieldShort) field).getAsInt());
+        } else if (field instanceof JBBPFieldString) {
+            appendString(json, ((JBBPFieldString) field).getAsString());
+        } else if (field instanceof JBBPFieldStruct) {
+            appendStruct(json, (JBBPFieldStruct) field);
+        } else if (field instanceof JBBPFieldUByte) {
+            json.append(((JBBPFieldUByte) field).getAsInt());
+        } else if (field instanceof JBBPFieldUShort) {
+            json.append(((JBBPFieldUShort) field).getAsInt());
+        } else {
+            throw new ConversionException(String.format("Unexpected field '%s'", field));
+        }
+    }
+
+    /**
+     * Writes a JSON string, escaped the same way as by Gson, or null
+     */
+    private static StringBuilder appendString(final StringBuilder json, final String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                case '\b':
+                    json.append("\\b");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\f':
+                    json.append("\\f");
+                    break;
+                case '\u2028':
+                case '\u2029':
+                    json.append(String.format("\\u%04x", (int) c));
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                    break;
+            }
+        }
+        return json.append('"');
+    }
+
+    private static StringBuilder appendSeparator(final StringBuilder json, final int index) {
+        if (index > 0) {
+            json.append(',');
+        }
+        return json;
+    }
 }
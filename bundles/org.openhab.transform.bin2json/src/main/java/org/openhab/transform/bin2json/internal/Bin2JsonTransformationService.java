@@ -16,6 +16,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.common.TransformationCache;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,10 +33,21 @@ public class Bin2JsonTransformationService implements TransformationService {
 
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    private static final int MAX_CACHED_PARSERS = 64;
+
+    /**
+     * Prefix of the syntax to convert all consecutive frames of the source to a JSON array
+     */
+    private static final String FRAMES_PREFIX = "frames:";
+
+    /** Converters keyed by parser rule, a prepared parser can be used by several threads */
+    private final TransformationCache<String, Bin2Json> converters = new TransformationCache<>("bin2json",
+            MAX_CACHED_PARSERS);
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
-     * @param syntax Java Binary Block Parser syntax.
+     * @param syntax Java Binary Block Parser syntax, prefixed with <code>frames:</code> to convert consecutive frames
      * @param source the input to transform
      */
     @Override
@@ -46,7 +58,12 @@ public class Bin2JsonTransformationService implements TransformationService {
         String result = "";
 
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            if (syntax.startsWith(FRAMES_PREFIX)) {
+                result = converters.get(syntax.substring(FRAMES_PREFIX.length()), Bin2Json::new)
+                        .convertFrames(source);
+            } else {
+                result = String.valueOf(converters.get(syntax, Bin2Json::new).convert(source));
+            }
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+
+/**
+ * Checks that the streaming conversion writes the same JSON as the Gson based conversion
+ *
+ * @author agent - Initial contribution
+ */
+public class Bin2JsonTest {
+
+    @Test
+    public void testConvert() throws ConversionException {
+        assertThat(new Bin2Json("byte a; byte b; ubyte c;").convert("03FAFF").toString(),
+                is(equalTo("{\"a\":3,\"b\":-6,\"c\":255}")));
+    }
+
+    @Test
+    public void testNumericFields() throws ConversionException {
+        assertStreamedEqualsGson("bool a; byte b; ubyte c; short d; ushort e; int f; long g;",
+                "01" + "FA" + "FF" + "8001" + "FFFE" + "80000001" + "8000000000000001");
+    }
+
+    @Test
+    public void testFloatingPointFields() throws ConversionException {
+        ByteBuffer data = ByteBuffer.allocate(4 + 8 + 3 * 4 + 3 * 8);
+        data.putFloat(1.5f).putDouble(-0.1);
+        data.putFloat(Float.NaN).putFloat(Float.MAX_VALUE).putFloat(-0f);
+        data.putDouble(Double.NEGATIVE_INFINITY).putDouble(Double.MIN_VALUE).putDouble(1e21);
+        assertStreamedEqualsGson("floatj a; doublej b; floatj [3] c; doublej [3] d;", data.array());
+    }
+
+    @Test
+    public void testBitFields() throws ConversionException {
+        assertStreamedEqualsGson("bit:1 a; bit:3 b; bit:4 c; bit:4 [2] d; bit [_] e;", "A5" + "3C" + "0F0F");
+    }
+
+    @Test
+    public void testArrays() throws ConversionException {
+        assertStreamedEqualsGson(
+                "bool [2] a; byte [2] b; ubyte [2] c; short [2] d; ushort [2] e; int [2] f; long [2] g;",
+                "0100" + "7F80" + "7F80" + "7FFF8000" + "7FFF8000" + "7FFFFFFF80000000"
+                        + "7FFFFFFFFFFFFFFF8000000000000000");
+    }
+
+    @Test
+    public void testStrings() throws ConversionException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        writeString(data, "\"quoted\" C:\\path\ttab\nline\u0001\u007f\u2028\u2029 \u00e4</script>");
+        // null string
+        data.write(0xFF);
+        writeString(data, "");
+        writeString(data, "\u20ac");
+        assertStreamedEqualsGson("stringj a; stringj b; stringj [2] c;", data.toByteArray());
+    }
+
+    @Test
+    public void testStructs() throws ConversionException {
+        assertStreamedEqualsGson("byte a; inner { ubyte b; short c; } list [2] { byte d; bit:4 e; bit:4 f; }",
+                "01" + "FF" + "8000" + "0112" + "0234");
+    }
+
+    @Test
+    public void testUnnamedFields() throws ConversionException {
+        assertStreamedEqualsGson("byte a; byte; ubyte; inner { byte; }", "010203" + "04");
+    }
+
+    @Test
+    public void testConsecutiveFrames() throws ConversionException {
+        Bin2Json bin2json = new Bin2Json("byte a; ubyte [2] b;");
+        List<String> frames = new ArrayList<>();
+
+        int count = bin2json.convert(new ByteArrayInputStream(HexUtils.hexToBytes("01FFFE" + "020304" + "7F8081")),
+                frames::add);
+
+        assertThat(count, is(3));
+        assertThat(frames, is(equalTo(Arrays.asList(bin2json.convert("01FFFE").toString(),
+                bin2json.convert("020304").toString(), bin2json.convert("7F8081").toString()))));
+        assertThat(bin2json.convertFrames("01FFFE020304"),
+                is(equalTo("[" + frames.get(0) + "," + frames.get(1) + "]")));
+        assertThat(bin2json.convertFrames(""), is(equalTo("[]")));
+    }
+
+    @Test(expected = ConversionException.class)
+    public void testIncompleteFrame() throws ConversionException {
+        new Bin2Json("byte a; short b;").convertFrames("010002" + "01");
+    }
+
+    private void assertStreamedEqualsGson(String rule, String hexData) throws ConversionException {
+        assertStreamedEqualsGson(rule, HexUtils.hexToBytes(hexData));
+    }
+
+    private void assertStreamedEqualsGson(String rule, byte[] data) throws ConversionException {
+        Bin2Json bin2json = new Bin2Json(rule);
+        List<String> frames = new ArrayList<>();
+
+        int count = bin2json.convert(new ByteArrayInputStream(data), frames::add);
+
+        assertThat(count, is(1));
+        assertThat(frames.get(0), is(equalTo(bin2json.convert(data).toString())));
+    }
+
+    /**
+     * Writes a string in the format of the JBBP stringj type, i.e. with its length as single byte prefix
+     */
+    private static void writeString(ByteArrayOutputStream data, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.write(bytes.length);
+        data.write(bytes, 0, bytes.length);
+    }
+}
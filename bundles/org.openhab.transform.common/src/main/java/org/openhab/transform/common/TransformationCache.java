@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Bounded cache of compiled transformation artifacts. The least recently used entry is evicted once the cache is
+ * full.
+ *
+ * Compilation happens outside of the cache lock, so two threads asking for the same missing key at the same time may
+ * both compile it; the result is the same and only one of them is kept.
+ *
+ * All caches in use are listed with their counters by the <code>transformcache</code> console command.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TransformationCache<K, V> {
+
+    /**
+     * Compiles a cache key into the artifact to keep
+     */
+    @FunctionalInterface
+    public interface Compiler<K, V, E extends Exception> {
+        V compile(K key) throws E;
+    }
+
+    /**
+     * Caches in use, caches of discarded service instances are dropped by the garbage collector
+     */
+    private static final Set<TransformationCache<?, ?>> CACHES = Collections
+            .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final String name;
+    private final Map<K, V> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param name name of the cache, as listed by the console command
+     * @param maxSize maximum number of entries kept
+     */
+    public TransformationCache(String name, int maxSize) {
+        this.name = name;
+        entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        CACHES.add(this);
+    }
+
+    /**
+     * @return all caches in use, ordered by name
+     */
+    public static List<TransformationCache<?, ?>> getCaches() {
+        List<TransformationCache<?, ?>> caches;
+        synchronized (CACHES) {
+            caches = new ArrayList<>(CACHES);
+        }
+        caches.sort(Comparator.comparing(TransformationCache::getName));
+        return caches;
+    }
+
+    /**
+     * Returns the cached artifact for the key, compiling and caching it if it is not cached yet.
+     *
+     * @param key key of the artifact
+     * @param compiler compiles the artifact if it is not cached
+     * @return cached or freshly compiled artifact
+     * @throws E if compiling fails, nothing is cached in that case
+     */
+    public <E extends Exception> V get(K key, Compiler<K, V, E> compiler) throws E {
+        @Nullable
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value != null) {
+            hits.incrementAndGet();
+            return value;
+        }
+        misses.incrementAndGet();
+        V compiled = compiler.compile(key);
+        synchronized (entries) {
+            entries.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Removes all entries, the counters are kept
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "TransformationCache [name=" + name + ", size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses()
+                + ", evictions=" + getEvictions() + "]";
+    }
+}
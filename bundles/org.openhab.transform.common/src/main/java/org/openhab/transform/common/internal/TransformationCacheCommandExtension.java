@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.common.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.transform.common.TransformationCache;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * Console commands to inspect the caches of the transformation services
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class TransformationCacheCommandExtension extends AbstractConsoleCommandExtension {
+    private static final String SUBCMD_LIST = "list";
+    private static final String SUBCMD_CLEAR = "clear";
+
+    public TransformationCacheCommandExtension() {
+        super("transformcache", "Inspect the caches of the transformation services.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 0) {
+            printUsage(console);
+            return;
+        }
+        switch (args[0]) {
+            case SUBCMD_LIST:
+                List<TransformationCache<?, ?>> caches = TransformationCache.getCaches();
+                if (caches.isEmpty()) {
+                    console.println("No transformation caches in use");
+                }
+                for (TransformationCache<?, ?> cache : caches) {
+                    console.println(String.format("%-24s size=%d, hits=%d, misses=%d, evictions=%d", cache.getName(),
+                            cache.size(), cache.getHits(), cache.getMisses(), cache.getEvictions()));
+                }
+                break;
+            case SUBCMD_CLEAR:
+                TransformationCache.getCaches().forEach(TransformationCache::clear);
+                console.println("Transformation caches cleared");
+                break;
+            default:
+                console.println("Unknown command '" + args[0] + "'");
+                printUsage(console);
+                break;
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(SUBCMD_LIST, "lists the caches with their size and hit/miss counters"),
+                buildCommandUsage(SUBCMD_CLEAR, "removes all cached entries, the counters are kept"));
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.common;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class TransformationCacheTest {
+
+    @Test
+    public void testCountersAndEviction() {
+        TransformationCache<String, String> cache = new TransformationCache<>("test.counters", 2);
+
+        assertThat(cache.get("a", String::toUpperCase), is("A"));
+        assertThat(cache.get("a", key -> "compiled again"), is("A"));
+        cache.get("b", String::toUpperCase);
+        cache.get("c", String::toUpperCase);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(3L));
+        assertThat(cache.getEvictions(), is(1L));
+    }
+
+    @Test
+    public void testFailedCompilationIsNotCached() {
+        TransformationCache<String, String> cache = new TransformationCache<>("test.failure", 2);
+
+        try {
+            cache.get("a", key -> {
+                throw new IllegalArgumentException(key);
+            });
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        assertThat(cache.size(), is(0));
+        assertThat(cache.get("a", String::toUpperCase), is("A"));
+    }
+
+    @Test
+    public void testCachesInUseAreListed() {
+        TransformationCache<String, String> cache = new TransformationCache<>("test.listed", 2);
+
+        assertThat(TransformationCache.getCaches().contains(cache), is(true));
+    }
+}
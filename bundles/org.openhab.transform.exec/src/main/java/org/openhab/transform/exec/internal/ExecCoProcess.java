@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived child process transforming values line by line: every value is written as one line to its standard
+ * input and the transformed value is read as one line from its standard output.
+ *
+ * Writing and reading are done by separate threads, so a process which does not consume its input cannot block the
+ * caller beyond the timeout of {@link #transform(String, long)}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecCoProcess {
+
+    private final Logger logger = LoggerFactory.getLogger(ExecCoProcess.class);
+
+    /** Marks the end of the standard output, compared by identity */
+    private static final String END_OF_OUTPUT = new String();
+
+    /** Stops the input writer, compared by identity */
+    private static final String END_OF_INPUT = new String();
+
+    private final String name;
+    private final Process process;
+    private final BufferedWriter input;
+    private final BlockingQueue<String> pendingInput = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> output = new LinkedBlockingQueue<>();
+    private volatile boolean closed;
+
+    /**
+     * Starts the child process
+     *
+     * @param command program and arguments
+     * @throws IOException if the process cannot be started
+     */
+    public ExecCoProcess(List<String> command) throws IOException {
+        name = String.join(" ", command);
+        process = new ProcessBuilder(command).start();
+        input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+
+        startThread("in", this::writeInput);
+        startThread("out", () -> readOutput(process.getInputStream()));
+        startThread("err", () -> readErrors(process.getErrorStream()));
+    }
+
+    private void startThread(String suffix, Runnable runnable) {
+        Thread thread = new Thread(runnable, "OH-exec-coprocess-" + suffix + "-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void writeInput() {
+        try {
+            String line;
+            while ((line = pendingInput.take()) != END_OF_INPUT) {
+                input.write(line);
+                input.write('\n');
+                input.flush();
+            }
+        } catch (IOException e) {
+            logger.debug("Writing to co-process '{}' failed: {}", name, e.getMessage());
+            closed = true;
+            output.add(END_OF_OUTPUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void readOutput(InputStream stream) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+            }
+        } catch (IOException e) {
+            logger.debug("Reading the output of co-process '{}' failed: {}", name, e.getMessage());
+        } finally {
+            closed = true;
+            output.add(END_OF_OUTPUT);
+        }
+    }
+
+    private void readErrors(InputStream stream) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                logger.debug("co-process '{}': {}", name, line);
+            }
+        } catch (IOException e) {
+            // process has terminated
+        }
+    }
+
+    /**
+     * Transforms a single value. Line breaks within the value are replaced by spaces, so the value is sent as a
+     * single line.
+     *
+     * @param value the value to transform
+     * @param timeoutMillis time to wait for the response
+     * @return the response line
+     * @throws IOException if the process has terminated or cannot be written to
+     * @throws TimeoutException if the process did not consume the value or respond in time, it is out of sync then
+     *             and must be closed
+     * @throws InterruptedException if interrupted while waiting for the response
+     */
+    public String transform(String value, long timeoutMillis)
+            throws IOException, TimeoutException, InterruptedException {
+        if (!isAlive()) {
+            throw new IOException("co-process '" + name + "' has terminated");
+        }
+        // lines printed without being asked for would shift all following responses
+        output.clear();
+
+        pendingInput.add(value.replace("\r\n", " ").replace('\n', ' ').replace('\r', ' '));
+
+        String line = output.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (line == null) {
+            throw new TimeoutException("co-process '" + name + "' did not respond within " + timeoutMillis + " ms");
+        }
+        if (line == END_OF_OUTPUT) {
+            throw new IOException("co-process '" + name + "' has terminated");
+        }
+        return line;
+    }
+
+    /**
+     * @return true if the process is still running and its output is open
+     */
+    public boolean isAlive() {
+        return !closed && process.isAlive();
+    }
+
+    /**
+     * Terminates the process. This does not wait for the process, as destroying it closes its standard input, which
+     * blocks until a pending write has failed.
+     */
+    public void close() {
+        closed = true;
+        pendingInput.clear();
+        pendingInput.add(END_OF_INPUT);
+        startThread("close", this::terminate);
+    }
+
+    private void terminate() {
+        process.destroy();
+        try {
+            if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Small pool of {@link ExecCoProcess}es running the same command line.
+ *
+ * Processes are started on demand up to the pool size. Before a process is used it is checked to be alive, a
+ * terminated process is dropped and replaced by a new one. A process which fails or does not respond in time is
+ * terminated, as its responses can no longer be matched to the values.
+ *
+ * After a process failed, new processes are started only after a restart delay, which doubles with every further
+ * failure up to a maximum and is reset by the first successful transformation. While the delay is active and no
+ * process is running, transformations fail immediately instead of starting a crashing program over and over.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecCoProcessPool {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final long MIN_RESTART_DELAY_MILLIS = 1000;
+    private static final long MAX_RESTART_DELAY_MILLIS = 60000;
+
+    private final Logger logger = LoggerFactory.getLogger(ExecCoProcessPool.class);
+
+    private final List<String> command;
+    private final int maxSize;
+    private final BlockingQueue<ExecCoProcess> idle;
+    private final AtomicInteger size = new AtomicInteger();
+    private final long minRestartDelayMillis;
+    private final long maxRestartDelayMillis;
+    private volatile long restartDelayMillis;
+    private volatile long restartNotBefore;
+    private volatile boolean closed;
+
+    /**
+     * @param commandLine program and arguments, separated by spaces or by '@@' if arguments contain spaces
+     * @param maxSize maximum number of processes
+     */
+    public ExecCoProcessPool(String commandLine, int maxSize) {
+        this(commandLine, maxSize, MIN_RESTART_DELAY_MILLIS, MAX_RESTART_DELAY_MILLIS);
+    }
+
+    /**
+     * @param commandLine program and arguments, separated by spaces or by '@@' if arguments contain spaces
+     * @param maxSize maximum number of processes
+     * @param minRestartDelayMillis delay before a process is started after the first failure
+     * @param maxRestartDelayMillis maximum delay before a process is started after repeated failures
+     */
+    ExecCoProcessPool(String commandLine, int maxSize, long minRestartDelayMillis, long maxRestartDelayMillis) {
+        String trimmed = commandLine.trim();
+        this.command = Arrays.asList(trimmed.contains("@@") ? trimmed.split("@@") : trimmed.split("\\s+"));
+        this.maxSize = maxSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+        this.minRestartDelayMillis = minRestartDelayMillis;
+        this.maxRestartDelayMillis = Math.max(minRestartDelayMillis, maxRestartDelayMillis);
+    }
+
+    /**
+     * Transforms a value by one of the processes of the pool
+     *
+     * @param value the value to transform
+     * @param timeoutMillis maximum time to wait for a free process and for its response, each
+     * @return the response of the process
+     * @throws TransformationException if no process could be started, the process failed or did not respond in time
+     */
+    public String transform(String value, long timeoutMillis) throws TransformationException {
+        ExecCoProcess process = borrow(timeoutMillis);
+        boolean healthy = false;
+        try {
+            String result = process.transform(value, timeoutMillis);
+            healthy = true;
+            if (restartDelayMillis != 0) {
+                restartDelayMillis = 0;
+            }
+            return result;
+        } catch (IOException e) {
+            logger.warn("co-process '{}' failed, it will be restarted: {}", process, e.getMessage());
+            delayRestart();
+            throw new TransformationException("co-process '" + process + "' failed", e);
+        } catch (TimeoutException e) {
+            logger.warn("{}, it will be restarted", e.getMessage());
+            delayRestart();
+            throw new TransformationException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("interrupted while waiting for co-process '" + process + "'", e);
+        } finally {
+            release(process, healthy);
+        }
+    }
+
+    private ExecCoProcess borrow(long timeoutMillis) throws TransformationException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!closed) {
+            ExecCoProcess process = idle.poll();
+            if (process == null) {
+                int current = size.get();
+                long restartDelay = restartNotBefore - System.nanoTime();
+                if (current < maxSize && (restartDelayMillis == 0 || restartDelay <= 0)) {
+                    if (size.compareAndSet(current, current + 1)) {
+                        return start();
+                    }
+                    continue;
+                }
+                if (current == 0) {
+                    throw new TransformationException("co-process '" + String.join(" ", command)
+                            + "' failed recently, it is restarted in " + TimeUnit.NANOSECONDS.toMillis(restartDelay)
+                            + " ms");
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new TransformationException("no co-process of '" + String.join(" ", command)
+                            + "' became available within " + timeoutMillis + " ms");
+                }
+                try {
+                    // poll in slices, so a slot freed by a dropped process is noticed
+                    process = idle.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS)),
+                            TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TransformationException("interrupted while waiting for a co-process", e);
+                }
+            }
+            if (process != null) {
+                if (process.isAlive()) {
+                    return process;
+                }
+                logger.warn("co-process '{}' has terminated, it will be restarted", process);
+                delayRestart();
+                discard(process);
+            }
+        }
+        throw new TransformationException("co-process pool of '" + String.join(" ", command) + "' is closed");
+    }
+
+    private ExecCoProcess start() throws TransformationException {
+        try {
+            ExecCoProcess process = new ExecCoProcess(command);
+            logger.debug("started co-process '{}' ({} of {})", process, size.get(), maxSize);
+            return process;
+        } catch (IOException e) {
+            size.decrementAndGet();
+            delayRestart();
+            throw new TransformationException("co-process '" + String.join(" ", command) + "' cannot be started", e);
+        }
+    }
+
+    /**
+     * Doubles the delay before the next process is started
+     */
+    private synchronized void delayRestart() {
+        long delay = restartDelayMillis == 0 ? minRestartDelayMillis
+                : Math.min(maxRestartDelayMillis, restartDelayMillis * 2);
+        restartNotBefore = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+        restartDelayMillis = delay;
+        logger.debug("co-processes of '{}' are started again in {} ms at the earliest", String.join(" ", command),
+                delay);
+    }
+
+    private void release(ExecCoProcess process, boolean healthy) {
+        if (healthy && !closed && process.isAlive() && idle.offer(process)) {
+            if (closed) {
+                // closed while the process was handed back
+                close();
+            }
+            return;
+        }
+        discard(process);
+    }
+
+    private void discard(ExecCoProcess process) {
+        size.decrementAndGet();
+        process.close();
+    }
+
+    /**
+     * @return number of running processes
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Terminates all idle processes, processes in use are terminated when they are released
+     */
+    public void close() {
+        closed = true;
+        @Nullable
+        ExecCoProcess process;
+        while ((process = idle.poll()) != null) {
+            discard(process);
+        }
+    }
+}
@@ -12,12 +12,16 @@
  */
 package org.openhab.transform.exec.internal;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,11 +37,26 @@ public class ExecTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
 
+    /** Prefix of command lines which are run as long-lived co-processes */
+    private static final String COPROCESS_PREFIX = "coprocess:";
+    private static final int COPROCESS_POOL_SIZE = 2;
+    private static final int TIMEOUT_MILLIS = 5000;
+
+    private final Map<String, ExecCoProcessPool> coProcessPools = new ConcurrentHashMap<>();
+
+    @Deactivate
+    public void deactivate() {
+        coProcessPools.values().forEach(ExecCoProcessPool::close);
+        coProcessPools.clear();
+    }
+
     /**
      * Transforms the input <code>source</code> by the command line.
      *
      * @param commandLine the command to execute. Command line should contain %s string,
-     *                        which will be replaced by the input data.
+     *                        which will be replaced by the input data. If it is prefixed by
+     *                        <code>coprocess:</code>, the command is started once and the input
+     *                        data is written to its standard input line by line instead.
      * @param source      the input to transform
      */
     @Override
@@ -50,8 +69,15 @@ public class ExecTransformationService implements TransformationService {
 
         long startTime = System.currentTimeMillis();
 
-        String formattedCommandLine = String.format(commandLine, source);
-        String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, 5000);
+        String result;
+        if (commandLine.startsWith(COPROCESS_PREFIX)) {
+            ExecCoProcessPool pool = coProcessPools.computeIfAbsent(commandLine.substring(COPROCESS_PREFIX.length()),
+                    command -> new ExecCoProcessPool(command, COPROCESS_POOL_SIZE));
+            result = pool.transform(source, TIMEOUT_MILLIS);
+        } else {
+            String formattedCommandLine = String.format(commandLine, source);
+            result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, TIMEOUT_MILLIS);
+        }
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
 
         return result;
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the co-process pool with a small shell script which answers every line with the line prefixed by "x". It
+ * exits on "exit", sleeps before answering "sleep" and does not answer "ignore".
+ *
+ * @author agent - Initial contribution
+ */
+public class ExecCoProcessPoolTest {
+
+    private static final String SHELL = "/bin/sh";
+    private static final String SCRIPT = "while read l; do " //
+            + "if [ \"$l\" = exit ]; then exit 1; fi; " //
+            + "if [ \"$l\" = sleep ]; then sleep 1; fi; " //
+            + "if [ \"$l\" != ignore ]; then echo \"x$l\"; fi; " //
+            + "done";
+    private static final String COMMAND_LINE = SHELL + "@@-c@@" + SCRIPT;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private ExecCoProcessPool pool;
+
+    @Before
+    public void setUp() {
+        assumeTrue(new File(SHELL).canExecute());
+        pool = new ExecCoProcessPool(COMMAND_LINE, 1, 200, 1000);
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRoundTrip() throws TransformationException {
+        assertEquals("xa", pool.transform("a", 5000));
+        assertEquals("xb", pool.transform("b", 5000));
+        assertEquals("xmulti line", pool.transform("multi\nline", 5000));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testTimeoutTerminatesProcess() throws Exception {
+        assertEquals("xa", pool.transform("a", 5000));
+        try {
+            pool.transform("ignore", 200);
+            fail("transformation should time out");
+        } catch (TransformationException e) {
+            assertEquals(0, pool.size());
+        }
+
+        // started again after the restart delay, without a late answer of the old process
+        Thread.sleep(300);
+        assertEquals("xb", pool.transform("b", 5000));
+    }
+
+    @Test
+    public void testBlockedInputTimesOut() throws Exception {
+        // never reads its input, so the pipe fills up
+        ExecCoProcessPool blocked = new ExecCoProcessPool(SHELL + "@@-c@@sleep 10", 1, 200, 1000);
+        char[] value = new char[1024 * 1024];
+        Arrays.fill(value, 'a');
+        long start = System.nanoTime();
+        try {
+            blocked.transform(new String(value), 200);
+            fail("transformation should time out");
+        } catch (TransformationException e) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+            assertEquals(0, blocked.size());
+        } finally {
+            blocked.close();
+        }
+    }
+
+    @Test
+    public void testCrashedProcessIsRestartedAfterDelay() throws Exception {
+        assertEquals("xa", pool.transform("a", 5000));
+        try {
+            pool.transform("exit", 5000);
+            fail("transformation should fail");
+        } catch (TransformationException e) {
+            assertEquals(0, pool.size());
+        }
+
+        // no process is started while the restart delay is active
+        long start = System.nanoTime();
+        try {
+            pool.transform("b", 5000);
+            fail("transformation should fail during the restart delay");
+        } catch (TransformationException e) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            assertEquals(0, pool.size());
+        }
+
+        Thread.sleep(300);
+        assertEquals("xb", pool.transform("b", 5000));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testRestartDelayGrowsWithRepeatedFailures() throws Exception {
+        try {
+            pool.transform("exit", 5000);
+            fail("transformation should fail");
+        } catch (TransformationException e) {
+            // expected
+        }
+        Thread.sleep(300);
+        try {
+            pool.transform("exit", 5000);
+            fail("transformation should fail");
+        } catch (TransformationException e) {
+            // expected
+        }
+
+        // the second delay is twice the first one
+        Thread.sleep(300);
+        try {
+            pool.transform("a", 5000);
+            fail("transformation should fail during the restart delay");
+        } catch (TransformationException e) {
+            assertEquals(0, pool.size());
+        }
+        Thread.sleep(200);
+        assertEquals("xa", pool.transform("a", 5000));
+    }
+
+    @Test
+    public void testExhaustedPoolTimesOut() throws Exception {
+        Future<String> busy = executor.submit(() -> pool.transform("sleep", 5000));
+        // wait until the only process is in use
+        while (pool.size() == 0) {
+            Thread.sleep(10);
+        }
+
+        try {
+            pool.transform("a", 200);
+            fail("no process should be available");
+        } catch (TransformationException e) {
+            assertTrue(e.getMessage().contains("became available"));
+        }
+        assertEquals("xsleep", busy.get(5, TimeUnit.SECONDS));
+        assertEquals("xa", pool.transform("a", 5000));
+    }
+}
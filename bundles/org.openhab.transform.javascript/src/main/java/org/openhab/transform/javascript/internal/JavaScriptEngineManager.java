@@ -13,13 +13,14 @@
 package org.openhab.transform.javascript.internal;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.script.Bindings;
 import javax.script.Compilable;
 import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
@@ -27,6 +28,7 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
@@ -35,6 +37,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Simple cache for compiled JavaScript files.
  *
+ * Script engines are not safe for concurrent use, so each script is compiled into a bounded pool of instances, each
+ * with an engine of its own. Concurrent transformations with the same script use different instances, and wait for
+ * a free instance only when the pool is exhausted, see {@link ScriptInstancePool}.
+ *
  * @author Thomas Kordelle - pre compiled scripts
  *
  */
@@ -42,38 +48,91 @@ import org.slf4j.LoggerFactory;
 @Component(service = JavaScriptEngineManager.class)
 public class JavaScriptEngineManager {
 
+    /**
+     * Maximum number of compiled instances per script
+     */
+    private static final int MAX_INSTANCES_PER_SCRIPT = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Maximum time to wait for a free instance of a script
+     */
+    private static final long MAX_WAIT_MILLIS = 10000;
+
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
     private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    private final Map<String, ScriptInstancePool<CompiledScript>> scriptPools = new ConcurrentHashMap<>();
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
-     * storage and put a pre compiled version into the cache.
-     *
-     * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
-     * @throws TransformationException if compile of JavaScript failed
+     * Creates the pool of compiled instances of a single script
      */
-    protected CompiledScript getScript(final String filename) throws TransformationException {
-        synchronized (compiledScriptMap) {
-            if (compiledScriptMap.containsKey(filename)) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScriptMap.get(filename);
-            } else {
+    private ScriptInstancePool<CompiledScript> createPool(String filename) {
+        final ScriptSource source = new ScriptSource(filename);
+        return new ScriptInstancePool<>("JavaScript " + filename, MAX_INSTANCES_PER_SCRIPT, MAX_WAIT_MILLIS,
+                () -> compile(source));
+    }
+
+    /**
+     * Source of a script, loaded once per pool
+     */
+    private class ScriptSource {
+        private final String filename;
+        private @Nullable String source;
+
+        private ScriptSource(String filename) {
+            this.filename = filename;
+        }
+
+        private synchronized String get() throws TransformationException {
+            String source = this.source;
+            if (source == null) {
                 final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
                 logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
+                try {
+                    this.source = source = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+                } catch (IOException e) {
                     throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
                             e);
                 }
             }
+            return source;
+        }
+    }
+
+    private CompiledScript compile(ScriptSource source) throws TransformationException {
+        try {
+            final ScriptEngine engine = manager.getEngineByName("javascript");
+            final CompiledScript cScript = ((Compilable) engine).compile(source.get());
+            logger.debug("Compiled an instance of JavaScript {}.", source.filename);
+            return cScript;
+        } catch (ScriptException e) {
+            throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Evaluate a script. The script is loaded from storage and compiled if it is not in the cache yet.
+     *
+     * @param filename name of the JavaScript file to evaluate
+     * @param input value of the 'input' variable of the script
+     * @return result of the script
+     * @throws TransformationException if compile of JavaScript failed
+     * @throws ScriptException if evaluation of the script failed
+     */
+    protected @Nullable Object eval(final String filename, final String input)
+            throws TransformationException, ScriptException {
+        ScriptInstancePool<CompiledScript> pool = scriptPools.get(filename);
+        if (pool == null) {
+            pool = scriptPools.computeIfAbsent(filename, this::createPool);
+        } else {
+            logger.debug("Loading JavaScript {} from cache.", filename);
+        }
+        final CompiledScript cScript = pool.borrow();
+        try {
+            final Bindings bindings = cScript.getEngine().createBindings();
+            bindings.put("input", input);
+            return cScript.eval(bindings);
+        } finally {
+            pool.release(cScript);
         }
     }
 
@@ -84,6 +143,6 @@ public class JavaScriptEngineManager {
      */
     protected void removeFromCache(String fileName) {
         logger.debug("Removing JavaScript {} from cache.", fileName);
-        compiledScriptMap.remove(fileName);
+        scriptPools.remove(fileName);
     }
 }
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of instances of a single script.
+ *
+ * Idle instances are reused. New instances are created until the maximum is reached, then callers wait for an
+ * instance to be released. Waiting callers check regularly whether they may create an instance themselves, because
+ * the creation of another instance may have failed in the meantime, and give up after a bounded time.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> type of the instances
+ */
+@NonNullByDefault
+class ScriptInstancePool<T> {
+
+    /**
+     * Creates a new instance of the script
+     */
+    @FunctionalInterface
+    interface Factory<T> {
+        T create() throws TransformationException;
+    }
+
+    /**
+     * Interval in which waiting callers check whether they may create an instance themselves
+     */
+    private static final long RECHECK_INTERVAL_MILLIS = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(ScriptInstancePool.class);
+    private final String name;
+    private final int maxInstances;
+    private final long maxWaitMillis;
+    private final Factory<T> factory;
+    private final BlockingQueue<T> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger instances = new AtomicInteger();
+
+    /**
+     * @param name name of the script, used in messages
+     * @param maxInstances maximum number of instances
+     * @param maxWaitMillis maximum time to wait for a free instance
+     * @param factory creates the instances
+     */
+    ScriptInstancePool(String name, int maxInstances, long maxWaitMillis, Factory<T> factory) {
+        this.name = name;
+        this.maxInstances = maxInstances;
+        this.maxWaitMillis = maxWaitMillis;
+        this.factory = factory;
+    }
+
+    /**
+     * Takes an idle instance, creates a new one or waits for one to be released.
+     *
+     * @return instance for exclusive use until it is {@link #release(Object) released}
+     * @throws TransformationException if no instance could be created or no instance was released in time
+     */
+    T borrow() throws TransformationException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        while (true) {
+            T instance = idle.poll();
+            if (instance != null) {
+                return instance;
+            }
+            int count = instances.get();
+            if (count < maxInstances) {
+                if (instances.compareAndSet(count, count + 1)) {
+                    try {
+                        return factory.create();
+                    } catch (TransformationException | RuntimeException e) {
+                        instances.decrementAndGet();
+                        throw e;
+                    }
+                }
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TransformationException(
+                        "Timed out after " + maxWaitMillis + " ms waiting for a free instance of " + name);
+            }
+            logger.trace("All {} instances of {} are in use, waiting.", count, name);
+            try {
+                instance = idle.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(RECHECK_INTERVAL_MILLIS)),
+                        TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransformationException("Interrupted while waiting for " + name, e);
+            }
+            if (instance != null) {
+                return instance;
+            }
+        }
+    }
+
+    /**
+     * Returns an instance to the pool
+     *
+     * @param instance instance obtained by {@link #borrow()}
+     */
+    void release(T instance) {
+        idle.offer(instance);
+    }
+
+    /**
+     * @return number of instances created and not failed
+     */
+    int getInstances() {
+        return instances.get();
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ScriptInstancePoolTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger created = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReleasedInstanceIsReused() throws TransformationException {
+        ScriptInstancePool<Integer> pool = new ScriptInstancePool<>("test", 2, 1000, created::incrementAndGet);
+
+        Integer first = pool.borrow();
+        pool.release(first);
+        Integer second = pool.borrow();
+
+        assertEquals(first, second);
+        assertEquals(1, created.get());
+
+        // a second instance is only created for concurrent use
+        Integer third = pool.borrow();
+        assertNotEquals(second, third);
+        assertEquals(2, pool.getInstances());
+    }
+
+    @Test
+    public void testWaitForReleasedInstanceWhenExhausted() throws Exception {
+        ScriptInstancePool<Integer> pool = new ScriptInstancePool<>("test", 1, 5000, created::incrementAndGet);
+        Integer instance = pool.borrow();
+
+        Future<Integer> waiting = executor.submit(pool::borrow);
+        Thread.sleep(300);
+        assertFalse(waiting.isDone());
+
+        pool.release(instance);
+        assertEquals(instance, waiting.get(2, TimeUnit.SECONDS));
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testWaitIsBounded() throws TransformationException {
+        ScriptInstancePool<Integer> pool = new ScriptInstancePool<>("test", 1, 300, created::incrementAndGet);
+        pool.borrow();
+
+        long start = System.nanoTime();
+        try {
+            pool.borrow();
+            fail("borrow should time out");
+        } catch (TransformationException e) {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsed >= 250 && elapsed < 2000);
+        }
+    }
+
+    @Test
+    public void testCompileFailureDoesNotBlockWaitingThreads() throws Exception {
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        ScriptInstancePool<Integer> pool = new ScriptInstancePool<>("test", 1, 10000, () -> {
+            if (created.incrementAndGet() == 1) {
+                compiling.countDown();
+                try {
+                    fail.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            throw new TransformationException("syntax error");
+        });
+
+        Future<Integer> compilingThread = executor.submit(pool::borrow);
+        assertTrue(compiling.await(2, TimeUnit.SECONDS));
+        // the only instance is being compiled, this thread has to wait
+        Future<Integer> waitingThread = executor.submit(pool::borrow);
+        Thread.sleep(300);
+        assertFalse(waitingThread.isDone());
+
+        fail.countDown();
+        assertFailsWithTransformationException(compilingThread);
+        // the waiting thread creates an instance itself, long before the maximum wait time
+        assertFailsWithTransformationException(waitingThread);
+        assertEquals(2, created.get());
+        assertEquals(0, pool.getInstances());
+    }
+
+    private void assertFailsWithTransformationException(Future<Integer> future) throws Exception {
+        try {
+            future.get(2, TimeUnit.SECONDS);
+            fail("borrow should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TransformationException);
+        }
+    }
+}
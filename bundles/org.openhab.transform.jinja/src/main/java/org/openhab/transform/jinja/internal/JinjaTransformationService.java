@@ -19,11 +19,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.common.TransformationCache;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +33,12 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
@@ -45,7 +53,33 @@ public class JinjaTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
-    private Jinjava jinjava = new Jinjava();
+    private static final int MAX_CACHED_TEMPLATES = 256;
+
+    private final Jinjava jinjava = new Jinjava();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Parsed templates, the node trees are not modified while rendering and can be shared */
+    private final TransformationCache<String, Node> templates = new TransformationCache<>("jinja",
+            MAX_CACHED_TEMPLATES);
+
+    /**
+     * The last transformed value and its parsed JSON tree. Discovered MQTT things usually transform the same
+     * message once per channel, so the message is only parsed for the first channel. The tree is never handed to a
+     * template, every render gets its own copy, as filters might modify it.
+     */
+    private volatile @Nullable ParsedValue lastValue;
+
+    private static class ParsedValue {
+        private final String value;
+        private final boolean json;
+        private final @Nullable JsonNode tree;
+
+        private ParsedValue(String value, boolean json, @Nullable JsonNode tree) {
+            this.value = value;
+            this.json = json;
+            this.tree = tree;
+        }
+    }
 
     /**
      * Transforms the input <code>value</code> by Jinja template.
@@ -58,23 +92,70 @@ public class JinjaTransformationService implements TransformationService {
     public @Nullable String transform(String template, String value) throws TransformationException {
         logger.debug("about to transform '{}' by the function '{}'", value, template);
 
-        Map<String, @Nullable Object> bindings = new HashMap<>();
-        bindings.put("value", value);
+        Context context = new Context(jinjava.getGlobalContext());
+        context.put("value", value);
+        ParsedValue parsedValue = parse(value);
+        JsonNode tree = parsedValue.tree;
+        if (parsedValue.json && tree != null) {
+            context.put("value_json", toObject(tree));
+        }
 
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, context, jinjava.getGlobalConfig());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        String transformationResult;
         try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
+            Node root = templates.get(template, t -> parseTemplate(interpreter, t));
+            transformationResult = interpreter.render(root);
+        } finally {
+            JinjavaInterpreter.popCurrent();
         }
 
-        String transformationResult = jinjava.render(template, bindings);
+        List<TemplateError> fatalErrors = getFatalErrors(interpreter);
+        if (!fatalErrors.isEmpty()) {
+            throw new FatalTemplateErrorsException(template, fatalErrors);
+        }
 
         logger.debug("transformation resulted in '{}'", transformationResult);
 
         return transformationResult;
     }
 
+    private ParsedValue parse(String value) {
+        ParsedValue parsedValue = lastValue;
+        if (parsedValue != null && parsedValue.value.equals(value)) {
+            return parsedValue;
+        }
+        try {
+            parsedValue = new ParsedValue(value, true, objectMapper.readTree(value));
+        } catch (IOException e) {
+            // ok, then value_json is not set...
+            parsedValue = new ParsedValue(value, false, null);
+        }
+        lastValue = parsedValue;
+        return parsedValue;
+    }
+
+    /**
+     * Parses a template, templates with fatal errors are not cached
+     */
+    private static Node parseTemplate(JinjavaInterpreter interpreter, String template) {
+        Node root = interpreter.parse(template);
+        List<TemplateError> fatalErrors = getFatalErrors(interpreter);
+        if (!fatalErrors.isEmpty()) {
+            throw new FatalTemplateErrorsException(template, fatalErrors);
+        }
+        return root;
+    }
+
+    private static List<TemplateError> getFatalErrors(JinjavaInterpreter interpreter) {
+        return interpreter.getErrors().stream().filter(error -> error.getSeverity() == ErrorType.FATAL)
+                .collect(Collectors.toList());
+    }
+
+    TransformationCache<String, Node> getTemplates() {
+        return templates;
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
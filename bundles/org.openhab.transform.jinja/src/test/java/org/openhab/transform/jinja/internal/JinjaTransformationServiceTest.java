@@ -62,4 +62,34 @@ public class JinjaTransformationServiceTest {
         Assert.assertEquals("Hello world!", transformedResponse);
     }
 
+    @Test
+    public void testParsedTemplatesAreCached() throws TransformationException {
+        String json = "{\"Temperature\":4.7,\"Humidity\":99.9}";
+
+        Assert.assertEquals("4.7", processor.transform("{{value_json.Temperature}}", json));
+        Assert.assertEquals("99.9", processor.transform("{{value_json.Humidity}}", json));
+        Assert.assertEquals("5.2", processor.transform("{{value_json.Temperature}}", "{\"Temperature\":5.2}"));
+
+        Assert.assertEquals(2, processor.getTemplates().getMisses());
+        Assert.assertEquals(1, processor.getTemplates().getHits());
+    }
+
+    @Test
+    public void testNoJsonLeavesValueJsonUndefined() throws TransformationException {
+        String template = "{% if value_json is defined %}json{% else %}{{ value }}{% endif %}";
+
+        Assert.assertEquals("json", processor.transform(template, "42"));
+        Assert.assertEquals("not json", processor.transform(template, "not json"));
+    }
+
+    @Test
+    public void testModifiedValueJsonIsNotShared() throws TransformationException {
+        String json = "{\"list\":[1,2]}";
+        String template = "{% set ignored = value_json.list.append(3) %}{{ value_json.list|length }}";
+
+        Assert.assertEquals("3", processor.transform(template, json));
+        Assert.assertEquals("3", processor.transform(template, json));
+        Assert.assertEquals("2", processor.transform("{{ value_json.list|length }}", json));
+    }
+
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationException;
+
+/**
+ * Evaluates several JsonPath expressions against the same JSON document, parsing the document only once.
+ *
+ * This is meant for bindings which extract many channel values from a single payload, e.g. a sensor sending all of
+ * its readings in one JSON message.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface JSonPathBatchTransformationService {
+
+    /**
+     * Evaluates all expressions against the given JSON document.
+     *
+     * @param jsonPathExpressions JsonPath expressions to evaluate
+     * @param source String which contains JSON
+     * @return the results in the order of the expressions, formatted as by the JSONPATH transformation service.
+     *         The result is null for expressions which are invalid or do not match the document.
+     * @throws TransformationException if the source is not valid JSON
+     */
+    List<@Nullable String> transform(List<String> jsonPathExpressions, String source) throws TransformationException;
+}
@@ -12,6 +12,7 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,6 +21,8 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.openhab.transform.common.TransformationCache;
+import org.openhab.transform.jsonpath.JSonPathBatchTransformationService;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,11 +41,17 @@ import com.jayway.jsonpath.PathNotFoundException;
  *
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
-public class JSonPathTransformationService implements TransformationService {
+@Component(immediate = true, service = { TransformationService.class,
+        JSonPathBatchTransformationService.class }, property = { "smarthome.transform=JSONPATH" })
+public class JSonPathTransformationService implements TransformationService, JSonPathBatchTransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private static final int MAX_CACHED_PATHS = 256;
+
+    private final TransformationCache<String, JsonPath> paths = new TransformationCache<>("jsonpath", MAX_CACHED_PATHS);
+    private final JsonDocumentCache documents = new JsonDocumentCache();
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,15 +69,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
-            logger.debug("transformation resulted in '{}'", transformationResult);
-            if (transformationResult == null) {
-                return null;
-            } else if (transformationResult instanceof List) {
-                return flattenList((List<?>) transformationResult);
-            } else {
-                return transformationResult.toString();
-            }
+            return evaluate(jsonPathExpression, documents.parse(source));
         } catch (PathNotFoundException e) {
             throw new TransformationException("Invalid path '" + jsonPathExpression + "' in '" + source + "'");
         } catch (InvalidPathException | InvalidJsonException e) {
@@ -76,6 +77,53 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    @Override
+    public List<@Nullable String> transform(List<String> jsonPathExpressions, String source)
+            throws TransformationException {
+        logger.debug("about to transform '{}' by the functions {}", source, jsonPathExpressions);
+
+        Object document;
+        try {
+            document = documents.parse(source);
+        } catch (InvalidJsonException e) {
+            throw new TransformationException("An error occurred while parsing JSON.", e);
+        }
+
+        List<@Nullable String> results = new ArrayList<>(jsonPathExpressions.size());
+        for (String jsonPathExpression : jsonPathExpressions) {
+            String result = null;
+            try {
+                result = evaluate(jsonPathExpression, document);
+            } catch (PathNotFoundException e) {
+                logger.debug("Path '{}' not found in '{}'", jsonPathExpression, source);
+            } catch (InvalidPathException e) {
+                logger.warn("Invalid JsonPath expression '{}': {}", jsonPathExpression, e.getMessage());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private @Nullable String evaluate(String jsonPathExpression, @Nullable Object document) {
+        Object transformationResult = paths.get(jsonPathExpression, path -> JsonPath.compile(path)).read(document);
+        logger.debug("transformation resulted in '{}'", transformationResult);
+        if (transformationResult == null) {
+            return null;
+        } else if (transformationResult instanceof List) {
+            return flattenList((List<?>) transformationResult);
+        } else {
+            return transformationResult.toString();
+        }
+    }
+
+    TransformationCache<String, JsonPath> getPaths() {
+        return paths;
+    }
+
+    JsonDocumentCache getDocuments() {
+        return documents;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidJsonException;
+
+/**
+ * Keeps the most recently parsed JSON documents for a short time, so evaluating several expressions against the same
+ * payload, e.g. one per channel, parses it only once.
+ *
+ * Documents are looked up by their source string. Channels transforming the same payload usually share the same
+ * string instance, so the lookup mostly ends at the identity check of {@link String#equals(Object)}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JsonDocumentCache {
+
+    private static final int MAX_DOCUMENTS = 16;
+    private static final long MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private static class Document {
+        private final @Nullable Object json;
+        private final long parsedAt;
+
+        private Document(@Nullable Object json, long parsedAt) {
+            this.json = json;
+            this.parsedAt = parsedAt;
+        }
+    }
+
+    private final Map<String, Document> documents = new LinkedHashMap<String, Document>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Document> eldest) {
+            return size() > MAX_DOCUMENTS;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the parsed document, parsing it if it was not parsed recently
+     *
+     * @param source String which contains JSON
+     * @return parsed document as returned by the JSON provider of JsonPath
+     * @throws InvalidJsonException if the source is not valid JSON
+     */
+    public @Nullable Object parse(String source) {
+        long now = System.nanoTime();
+        synchronized (documents) {
+            Document document = documents.get(source);
+            if (document != null && now - document.parsedAt < MAX_AGE_NANOS) {
+                hits.incrementAndGet();
+                return document.json;
+            }
+        }
+        misses.incrementAndGet();
+        Object json = Configuration.defaultConfiguration().jsonProvider().parse(source);
+        synchronized (documents) {
+            documents.put(source, new Document(json, now));
+        }
+        return json;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -14,6 +14,9 @@ package org.openhab.transform.jsonpath.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -129,4 +132,30 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testCompiledPathsAreCached() throws TransformationException {
+        processor.transform("$[0].name", jsonArray);
+        String transformedResponse = processor.transform("$[0].name", "[{ \"name\":\"carol\" }]");
+
+        assertEquals("carol", transformedResponse);
+        assertEquals(1, processor.getPaths().getMisses());
+        assertEquals(1, processor.getPaths().getHits());
+    }
+
+    @Test
+    public void testBatchTransformParsesOnce() throws TransformationException {
+        List<String> results = processor.transform(Arrays.asList("$[0].name", "$[1].id", "$[0].missing", "$[0].empty"),
+                jsonArray);
+        processor.transform("$[1].name", jsonArray);
+
+        assertEquals(Arrays.asList("bob", "2", null, null), results);
+        assertEquals(1, processor.getDocuments().getMisses());
+        assertEquals(1, processor.getDocuments().getHits());
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testBatchTransformInvalidJson() throws TransformationException {
+        processor.transform(Arrays.asList("$[0].name"), "{\"id\":");
+    }
 }
@@ -19,6 +19,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.common.TransformationCache;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +41,13 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    private static final int MAX_CACHED_PATTERNS = 256;
+
+    private final TransformationCache<String, Pattern> substitutionPatterns = new TransformationCache<>(
+            "regex.substitution", MAX_CACHED_PATTERNS);
+    private final TransformationCache<String, Pattern> matchPatterns = new TransformationCache<>("regex.match",
+            MAX_CACHED_PATTERNS);
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -56,17 +64,19 @@ public class RegExTransformationService implements TransformationService {
             String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Matcher replaceMatcher = substitutionPatterns.get(regex, Pattern::compile).matcher(source.trim());
             if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = replaceMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = replaceMatcher.replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = matchPatterns.get(regExpression, regex -> Pattern.compile("^" + regex + "$", Pattern.DOTALL))
+                .matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -95,4 +105,12 @@ public class RegExTransformationService implements TransformationService {
         return result;
     }
 
+    TransformationCache<String, Pattern> getSubstitutionPatterns() {
+        return substitutionPatterns;
+    }
+
+    TransformationCache<String, Pattern> getMatchPatterns() {
+        return matchPatterns;
+    }
+
 }
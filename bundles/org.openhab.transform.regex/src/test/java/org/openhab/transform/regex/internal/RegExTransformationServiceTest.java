@@ -79,4 +79,18 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_compiledPatternsAreCached() throws TransformationException {
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "X12,Y54");
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "A1");
+        processor.transform(".*?<temp_c data=\"(.*?)\".*", source);
+        String transformedResponse = processor.transform(".*?<temp_c data=\"(.*?)\".*", source);
+
+        assertEquals("8", transformedResponse);
+        assertEquals(1, processor.getSubstitutionPatterns().getMisses());
+        assertEquals(1, processor.getSubstitutionPatterns().getHits());
+        assertEquals(1, processor.getMatchPatterns().getMisses());
+        assertEquals(1, processor.getMatchPatterns().getHits());
+    }
 }
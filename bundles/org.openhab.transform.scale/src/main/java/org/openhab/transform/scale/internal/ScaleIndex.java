@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Sorted, non-overlapping interval index of the ranges of a scale file.
+ *
+ * The boundaries of all ranges split the number line into segments: the boundary values themselves and the open
+ * intervals between them. Every segment is assigned the label of the first range in file order containing it, so
+ * the evaluation order of the scale file is kept. A lookup is a binary search over the boundaries converted to
+ * doubles; the BigDecimal boundaries are only compared when the value rounds to the same double as a boundary.
+ *
+ * @author agent - Initial contribution
+ */
+public class ScaleIndex {
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    /** Distinct boundaries of all ranges in ascending order */
+    private final BigDecimal[] boundaries;
+    /** Boundaries converted to double, in ascending order as well */
+    private final double[] approximations;
+    /**
+     * Label of every segment: index 2 * i is the open interval below boundary i, index 2 * i + 1 is boundary i
+     * itself and the last index is the open interval above the highest boundary. Null if no range matches.
+     */
+    private final String[] labels;
+
+    private final String format;
+    private final String nonNumeric;
+
+    /**
+     * Compiles the ranges of a scale file into an index
+     *
+     * @param ranges ranges in the order of the scale file
+     * @param rangeLabels labels of the ranges, in the same order
+     * @param format presentation format of the result
+     * @param nonNumeric label for non numeric input, may be null
+     */
+    public ScaleIndex(List<Range> ranges, List<String> rangeLabels, String format, String nonNumeric) {
+        SortedSet<BigDecimal> limits = new TreeSet<>();
+        for (Range range : ranges) {
+            if (range.min != null) {
+                limits.add(range.min);
+            }
+            if (range.max != null) {
+                limits.add(range.max);
+            }
+        }
+        boundaries = limits.toArray(new BigDecimal[limits.size()]);
+        approximations = new double[boundaries.length];
+        for (int i = 0; i < boundaries.length; i++) {
+            approximations[i] = boundaries[i].doubleValue();
+        }
+
+        labels = new String[2 * boundaries.length + 1];
+        for (int segment = 0; segment < labels.length; segment++) {
+            BigDecimal representative = representative(segment);
+            for (int i = 0; i < ranges.size(); i++) {
+                if (ranges.get(i).contains(representative)) {
+                    labels[segment] = rangeLabels.get(i);
+                    break;
+                }
+            }
+        }
+
+        this.format = format;
+        this.nonNumeric = nonNumeric;
+    }
+
+    /**
+     * @return a value lying within the given segment
+     */
+    private BigDecimal representative(int segment) {
+        int boundary = segment / 2;
+        if (boundaries.length == 0) {
+            return BigDecimal.ZERO;
+        } else if (segment % 2 == 1) {
+            return boundaries[boundary];
+        } else if (boundary == 0) {
+            return boundaries[0].subtract(BigDecimal.ONE);
+        } else if (boundary == boundaries.length) {
+            return boundaries[boundary - 1].add(BigDecimal.ONE);
+        } else {
+            return boundaries[boundary - 1].add(boundaries[boundary]).divide(TWO);
+        }
+    }
+
+    /**
+     * Finds the label of the first range of the scale file containing the value
+     *
+     * @param value value to look up
+     * @return label of the matching range or null if no range matches
+     */
+    public String lookup(BigDecimal value) {
+        double approximation = value.doubleValue();
+
+        // first boundary which is not below the value when compared as doubles
+        int low = 0;
+        int high = approximations.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (approximations[mid] < approximation) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        // rounding to double is monotonic, so only boundaries rounding to the same double need an exact comparison
+        int boundary = low;
+        while (boundary < approximations.length && approximations[boundary] == approximation) {
+            int cmp = boundaries[boundary].compareTo(value);
+            if (cmp == 0) {
+                return labels[2 * boundary + 1];
+            } else if (cmp > 0) {
+                break;
+            }
+            boundary++;
+        }
+        return labels[2 * boundary];
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getNonNumeric() {
+        return nonNumeric;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ScaleIndexTest {
+
+    private final List<Range> ranges = Arrays.asList(
+            Range.closed(new BigDecimal("0.1"), new BigDecimal("0.10000000000000000001")),
+            Range.lessThan(new BigDecimal("15")), Range.closedOpen(new BigDecimal("10"), new BigDecimal("17")),
+            Range.openClosed(new BigDecimal("20"), new BigDecimal("20.5")), Range.atLeast(new BigDecimal("30")));
+    private final List<String> labels = Arrays.asList("tiny", "first", "second", "third", "last");
+
+    private final ScaleIndex index = new ScaleIndex(ranges, labels, "%label%", null);
+
+    @Test
+    public void testFirstMatchingRangeWins() {
+        assertEquals("first", index.lookup(new BigDecimal("12")));
+        assertEquals("second", index.lookup(new BigDecimal("15")));
+        assertEquals("last", index.lookup(new BigDecimal("1E400")));
+    }
+
+    @Test
+    public void testBoundaries() {
+        assertEquals("second", index.lookup(new BigDecimal("16.9999")));
+        assertNull(index.lookup(new BigDecimal("17")));
+        assertNull(index.lookup(new BigDecimal("20")));
+        assertEquals("third", index.lookup(new BigDecimal("20.5")));
+        assertNull(index.lookup(new BigDecimal("20.50000000000000000001")));
+        assertEquals("last", index.lookup(new BigDecimal("30")));
+    }
+
+    @Test
+    public void testBoundariesRoundingToTheSameDouble() {
+        // both limits of the "tiny" range round to the double 0.1
+        assertEquals("first", index.lookup(new BigDecimal("0.0999999999999999999999")));
+        assertEquals("tiny", index.lookup(new BigDecimal("0.1")));
+        assertEquals("tiny", index.lookup(new BigDecimal("0.1000000000000000000001")));
+        assertEquals("tiny", index.lookup(new BigDecimal("0.10000000000000000001")));
+        assertEquals("first", index.lookup(new BigDecimal("0.1000000000000000001")));
+    }
+
+    @Test
+    public void testIndexMatchesLinearScan() {
+        List<BigDecimal> values = new ArrayList<>();
+        for (Range range : ranges) {
+            for (BigDecimal limit : Arrays.asList(range.min, range.max)) {
+                if (limit != null) {
+                    values.add(limit);
+                    values.add(limit.add(new BigDecimal("1E-30")));
+                    values.add(limit.subtract(new BigDecimal("1E-30")));
+                }
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            values.add(BigDecimal.valueOf(random.nextDouble() * 50 - 10));
+        }
+
+        for (BigDecimal value : values) {
+            assertEquals(value.toPlainString(), linearScan(value), index.lookup(value));
+        }
+    }
+
+    @Test
+    public void testUnboundedRangeOnly() {
+        ScaleIndex catchAll = new ScaleIndex(Arrays.asList(Range.all()), Arrays.asList("all"), "%label%", null);
+
+        assertEquals("all", catchAll.lookup(new BigDecimal("-1E100")));
+        assertEquals("all", catchAll.lookup(BigDecimal.ZERO));
+    }
+
+    private String linearScan(BigDecimal value) {
+        for (int i = 0; i < ranges.size(); i++) {
+            if (ranges.get(i).contains(value)) {
+                return labels.get(i);
+            }
+        }
+        return null;
+    }
+}
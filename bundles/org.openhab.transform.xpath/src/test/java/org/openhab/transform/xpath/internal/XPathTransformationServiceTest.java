@@ -41,4 +41,15 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testCompiledExpressionsAreCached() throws TransformationException {
+        processor.transform("//current_conditions/temp_c/@data", source);
+        String transformedResponse = processor.transform("//current_conditions/temp_f/@data", source);
+        processor.transform("//current_conditions/temp_c/@data", source);
+
+        assertEquals("46", transformedResponse);
+        assertEquals(2, processor.getExpressions().getMisses());
+        assertEquals(1, processor.getExpressions().getHits());
+    }
+
 }
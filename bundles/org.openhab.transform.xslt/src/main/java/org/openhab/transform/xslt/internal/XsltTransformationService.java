@@ -16,8 +16,9 @@ import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -27,6 +28,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.common.TransformationCache;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +45,15 @@ public class XsltTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private static final int MAX_CACHED_TEMPLATES = 64;
+
+    /**
+     * Compiled style sheets keyed by file path and modification time, so a changed file is compiled again. Templates
+     * are thread safe, a new {@link Transformer} is created from them for every transformation.
+     */
+    private final TransformationCache<String, Templates> templates = new TransformationCache<>("xslt",
+            MAX_CACHED_TEMPLATES);
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,12 +71,12 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        File xsl;
 
         try {
             String path = ConfigConstants.getConfigFolder() + File.separator
                     + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            xsl = new File(path);
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -81,7 +92,8 @@ public class XsltTransformationService implements TransformationService {
         Transformer transformer;
 
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            String key = xsl.getPath() + '@' + xsl.lastModified();
+            transformer = templates.get(key, k -> compile(xsl)).newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -93,4 +105,13 @@ public class XsltTransformationService implements TransformationService {
         return out.toString();
     }
 
+    private Templates compile(File xsl) throws TransformerConfigurationException {
+        logger.debug("compiling style sheet '{}', {}", xsl, templates);
+        return TransformerFactory.newInstance().newTemplates(new StreamSource(xsl));
+    }
+
+    TransformationCache<String, Templates> getTemplates() {
+        return templates;
+    }
+
 }